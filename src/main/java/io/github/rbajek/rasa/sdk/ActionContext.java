@@ -0,0 +1,207 @@
+package io.github.rbajek.rasa.sdk;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Context of a single run of an action.</p>
+ *
+ * <p>It gives the action its remaining time budget. When the deadline passes, the context is cancelled:
+ * the thread running the action is interrupted, the callbacks registered by {@link #onCancel(Runnable)} are run
+ * (e.g. the stage of an {@link io.github.rbajek.rasa.sdk.action.AsyncAction} is cancelled) and the result of the action
+ * is ignored, so long-running actions should check {@link #isCancelled()} to stop as soon as possible.</p>
+ *
+ * @author Rafał Bajek
+ */
+public class ActionContext {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ActionContext.class);
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final long deadlineNanos;
+    private final boolean warmUp;
+    private volatile boolean cancelled;
+
+    /**
+     * Thread which is currently running the action (guarded by this)
+     */
+    private Thread runner;
+
+    /**
+     * Contexts of parallel attempts of the action, which are cancelled together with this context (guarded by this)
+     */
+    private List<ActionContext> forks;
+
+    /**
+     * Callbacks run once on cancellation (guarded by this)
+     */
+    private List<Runnable> cancelCallbacks;
+
+    private ActionContext(long deadlineNanos, boolean warmUp) {
+        this.deadlineNanos = deadlineNanos;
+        this.warmUp = warmUp;
+    }
+
+    /**
+     * @return a context without any deadline
+     */
+    public static ActionContext withoutDeadline() {
+        return new ActionContext(NO_DEADLINE, false);
+    }
+
+    /**
+     * @param timeout time budget of the action, counted from now. <code>null</code> means no deadline
+     * @return a context with the deadline
+     */
+    public static ActionContext withTimeout(Duration timeout) {
+        return withTimeout(timeout, false);
+    }
+
+    /**
+     * @param timeout time budget of the action, counted from now. <code>null</code> means no deadline
+     * @param warmUp whether the action is run only to warm up (see {@link ActionExecutor#warmUp()})
+     * @return a context with the deadline
+     */
+    static ActionContext withTimeout(Duration timeout, boolean warmUp) {
+        return new ActionContext(timeout != null ? System.nanoTime() + timeout.toNanos() : NO_DEADLINE, warmUp);
+    }
+
+    //=================================================
+    // Class methods
+    //=================================================
+
+    public boolean hasDeadline() {
+        return this.deadlineNanos != NO_DEADLINE;
+    }
+
+    /**
+     * @return remaining time budget in nanoseconds (negative if the deadline has passed),
+     *         or {@link Long#MAX_VALUE} if there is no deadline
+     */
+    public long getRemainingNanos() {
+        return hasDeadline() ? this.deadlineNanos - System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    /**
+     * @return remaining time budget in milliseconds (negative if the deadline has passed),
+     *         or {@link Long#MAX_VALUE} if there is no deadline
+     */
+    public long getRemainingMillis() {
+        return hasDeadline() ? TimeUnit.NANOSECONDS.toMillis(getRemainingNanos()) : Long.MAX_VALUE;
+    }
+
+    /**
+     * @return <code>true</code> - if the action is run only to warm up the server (see {@link ActionExecutor#warmUp()}),
+     *         so it should not have any side effects (e.g. should not call external services). Otherwise - <code>false</code>
+     */
+    public boolean isWarmUp() {
+        return this.warmUp;
+    }
+
+    public boolean isExpired() {
+        return hasDeadline() && getRemainingNanos() <= 0;
+    }
+
+    /**
+     * @return <code>true</code> - if the result of the action is not needed anymore (e.g. the deadline has passed).
+     *         Otherwise - <code>false</code>
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Register a callback, which is run once when this context is cancelled (e.g. to cancel a pending call
+     * of an external service). If the context is already cancelled, the callback is run immediately.
+     *
+     * @param callback a callback
+     */
+    public void onCancel(Runnable callback) {
+        synchronized (this) {
+            if(this.cancelled == false) {
+                if(this.cancelCallbacks == null) {
+                    this.cancelCallbacks = new ArrayList<>(2);
+                }
+                this.cancelCallbacks.add(callback);
+                return;
+            }
+        }
+        runCallback(callback);
+    }
+
+    /**
+     * Create a context of another attempt of the action (e.g. a hedged one), with the same deadline.
+     * The created context is cancelled when this context is cancelled.
+     *
+     * @return a new context
+     */
+    synchronized ActionContext fork() {
+        ActionContext fork = new ActionContext(this.deadlineNanos, this.warmUp);
+        if(this.cancelled) {
+            fork.cancel();
+        } else {
+            if(this.forks == null) {
+                this.forks = new ArrayList<>(2);
+            }
+            this.forks.add(fork);
+        }
+        return fork;
+    }
+
+    /**
+     * Mark the current thread as the one running the action, so it can be interrupted on cancellation
+     */
+    synchronized void enter() {
+        this.runner = Thread.currentThread();
+    }
+
+    /**
+     * Mark the end of running the action by the current thread
+     */
+    void exit() {
+        synchronized (this) {
+            this.runner = null;
+        }
+        if(this.cancelled) {
+            // do not leak the interruption to the next task run by this thread
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Cancel the action, interrupt the thread which is running it and run the cancellation callbacks
+     */
+    void cancel() {
+        List<ActionContext> cancelledForks;
+        List<Runnable> callbacks;
+        synchronized (this) {
+            this.cancelled = true;
+            if(this.runner != null) {
+                this.runner.interrupt();
+            }
+            cancelledForks = this.forks;
+            callbacks = this.cancelCallbacks;
+            this.cancelCallbacks = null;
+        }
+        // outside of the lock, as the callbacks may complete stages observed by other threads
+        if(cancelledForks != null) {
+            cancelledForks.forEach(ActionContext::cancel);
+        }
+        if(callbacks != null) {
+            callbacks.forEach(ActionContext::runCallback);
+        }
+    }
+
+    private static void runCallback(Runnable callback) {
+        try {
+            callback.run();
+        } catch (RuntimeException e) {
+            LOGGER.warn("A cancellation callback has failed", e);
+        }
+    }
+}
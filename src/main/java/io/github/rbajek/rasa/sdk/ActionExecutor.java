@@ -1,15 +1,53 @@
 package io.github.rbajek.rasa.sdk;
 
 import io.github.rbajek.rasa.sdk.action.Action;
+import io.github.rbajek.rasa.sdk.action.ActionPriority;
+import io.github.rbajek.rasa.sdk.action.AsyncAction;
+import io.github.rbajek.rasa.sdk.action.StreamingAction;
+import io.github.rbajek.rasa.sdk.codec.ActionCodec;
+import io.github.rbajek.rasa.sdk.codec.ActionResponseWriter;
+import io.github.rbajek.rasa.sdk.concurrent.Bulkhead;
+import io.github.rbajek.rasa.sdk.concurrent.CircuitBreaker;
+import io.github.rbajek.rasa.sdk.concurrent.PartitionedExecutor;
+import io.github.rbajek.rasa.sdk.concurrent.PriorityExecutor;
+import io.github.rbajek.rasa.sdk.concurrent.ThreadPerTaskExecutors;
+import io.github.rbajek.rasa.sdk.concurrent.limit.AdaptiveConcurrencyLimiter;
 import io.github.rbajek.rasa.sdk.dto.ActionRequest;
 import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+import io.github.rbajek.rasa.sdk.dto.Domain;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
 import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+import io.github.rbajek.rasa.sdk.exception.ActionExecutionRejectionException;
+import io.github.rbajek.rasa.sdk.exception.ActionTimeoutException;
+import io.github.rbajek.rasa.sdk.exception.BulkheadFullException;
+import io.github.rbajek.rasa.sdk.exception.CircuitBreakerOpenException;
+import io.github.rbajek.rasa.sdk.exception.ConcurrencyLimitExceededException;
 import io.github.rbajek.rasa.sdk.exception.RasaException;
+import io.github.rbajek.rasa.sdk.util.FutureUtils;
+import io.github.rbajek.rasa.sdk.util.SerializationUtils;
 import io.github.rbajek.rasa.sdk.util.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.OutputStream;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Action executor
@@ -19,58 +57,1376 @@ import java.util.*;
 public class ActionExecutor {
     private static final Logger LOGGER = LoggerFactory.getLogger(ActionExecutor.class);
 
-    private Map<String, Action> actions = new HashMap<>();
+    private static final String WARM_UP_SENDER_ID = "warm-up";
 
+    private static final int DEFAULT_WARM_UP_ITERATIONS = 1;
+
+    /**
+     * Dispatchers reused by worker threads of {@link #runBatch(Collection, ForkJoinPool)}
+     */
+    private static final ThreadLocal<CollectingDispatcher> BATCH_DISPATCHERS = ThreadLocal.withInitial(() -> new CollectingDispatcher(true));
+
+    private final ActionRegistry actions = new ActionRegistry();
+
+    /**
+     * Executor used to run actions asynchronously (see {@link #runAsync(ActionRequest)})
+     */
+    private final Executor executor;
+
+    /**
+     * Time budget of actions which do not define their own timeout (see {@link ActionOptions#getTimeout()})
+     */
+    private volatile Duration defaultTimeout;
+
+    /**
+     * Response returned when an action, which does not define its own fallback, exceeds its deadline
+     */
+    private volatile ActionResponse timeoutFallback;
+
+    /**
+     * Limiter of requests in flight (see {@link #run(ActionRequest)} and {@link #runAsync(ActionRequest)})
+     */
+    private volatile AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    /**
+     * Whether concurrent duplicates of a request share one execution (see {@link #setRequestCoalescing(boolean)})
+     */
+    private volatile boolean requestCoalescing;
+
+    /**
+     * Cache of responses of retried requests (see {@link #setResponseCache(ResponseCache)})
+     */
+    private volatile ResponseCache responseCache;
+
+    /**
+     * Interceptors (see {@link #addInterceptor(ActionInterceptor)}) and the chains compiled from them.
+     * The chains are <code>null</code> if there are no interceptors
+     */
+    private volatile List<ActionInterceptor> interceptors = Collections.emptyList();
+    private volatile ActionInterceptor.Chain interceptorChain;
+    private volatile ActionInterceptor.Chain asyncInterceptorChain;
+    private volatile ActionInterceptor.Chain batchInterceptorChain;
+
+    /**
+     * Number of warm-up iterations required before this executor is ready (see {@link #warmUp(Collection)})
+     */
+    private volatile int warmUpIterations = DEFAULT_WARM_UP_ITERATIONS;
+
+    private final AtomicInteger completedWarmUpIterations = new AtomicInteger();
+
+    /**
+     * Executions of requests in flight, used to coalesce duplicates
+     */
+    private final ConcurrentMap<RequestFingerprint, CompletableFuture<ActionResponse>> inFlightRequests = new ConcurrentHashMap<>();
+
+    /**
+     * Create an action executor, which runs asynchronous requests on the {@link ForkJoinPool#commonPool()}
+     */
+    public ActionExecutor() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create an action executor
+     *
+     * @param executor an executor used to run asynchronous requests. Actions which block on I/O should
+     *                 use a dedicated executor instead of the {@link ForkJoinPool#commonPool()}.
+     *                 A {@link PartitionedExecutor} runs requests of the same conversation one after another.
+     *                 A {@link PriorityExecutor} runs requests of actions of a higher priority first.
+     */
+    public ActionExecutor(Executor executor) {
+        if(executor == null) {
+            throw new RasaException("An executor must be provided");
+        }
+        this.executor = executor;
+    }
+
+    /**
+     * Create an action executor, which runs every asynchronous request (see {@link #runAsync(ActionRequest)})
+     * on its own thread. On Java 21+ virtual threads are used, so actions can block on I/O
+     * without tying up platform threads. Synchronous requests (see {@link #run(ActionRequest)}) still run on the calling thread
+     * (except hedged actions), so they use a virtual thread only if the caller runs on one (e.g. a server handling every HTTP request on its own virtual thread).
+     *
+     * @return a new action executor
+     * @see ThreadPerTaskExecutors
+     */
+    public static ActionExecutor threadPerTask() {
+        return new ActionExecutor(ThreadPerTaskExecutors.newThreadPerTaskExecutor("rasa-action-"));
+    }
+
+    /**
+     * Register an action. An already registered action with the same name is replaced.
+     *
+     * @param action an action which should be registered
+     */
     public void registerAction(Action action) {
+        registerAction(action, ActionOptions.defaults());
+    }
+
+    /**
+     * Register an action with the given options. An already registered action with the same name is replaced.
+     *
+     * @param action an action which should be registered
+     * @param options options of the action (e.g. its timeout)
+     */
+    public void registerAction(Action action, ActionOptions options) {
+        checkActionName(action);
+        this.actions.register(Collections.singletonList(new RegisteredAction(action, options)));
+        LOGGER.info("Registered action for '{}'.", action.name());
+    }
+
+    /**
+     * Register all given actions at once, so requests served in the meantime see either none or all of them.
+     *
+     * @param actions actions which should be registered
+     */
+    public void registerActions(Collection<? extends Action> actions) {
+        registerActions(actions, ActionOptions.defaults());
+    }
+
+    /**
+     * Register all given actions at once with the given options, so requests served in the meantime see either none or all of them.
+     * Every action gets its own bulkhead and circuit breaker configured by the options.
+     *
+     * @param actions actions which should be registered
+     * @param options options of the actions (e.g. their timeout)
+     */
+    public void registerActions(Collection<? extends Action> actions, ActionOptions options) {
+        this.actions.register(toRegisteredActions(actions, options));
+        actions.forEach(action -> LOGGER.info("Registered action for '{}'.", action.name()));
+    }
+
+    /**
+     * Unregister an action
+     *
+     * @param actionName a name of the action which should be unregistered
+     */
+    public void unregisterAction(String actionName) {
+        unregisterActions(Collections.singletonList(actionName));
+    }
+
+    /**
+     * Unregister all given actions at once
+     *
+     * @param actionNames names of actions which should be unregistered
+     */
+    public void unregisterActions(Collection<String> actionNames) {
+        this.actions.unregister(actionNames);
+        actionNames.forEach(actionName -> LOGGER.info("Unregistered action for '{}'.", actionName));
+    }
+
+    /**
+     * Atomically replace all registered actions by the given ones (e.g. when a new set of actions is deployed).
+     *
+     * @param actions actions which should be registered instead of the current ones
+     */
+    public void replaceActions(Collection<? extends Action> actions) {
+        replaceActions(actions, ActionOptions.defaults());
+    }
+
+    /**
+     * Atomically replace all registered actions by the given ones with the given options (e.g. when a new set of actions is deployed).
+     *
+     * @param actions actions which should be registered instead of the current ones
+     * @param options options of the actions (e.g. their timeout)
+     */
+    public void replaceActions(Collection<? extends Action> actions, ActionOptions options) {
+        this.actions.replace(toRegisteredActions(actions, options));
+        LOGGER.info("Replaced registered actions by {}.", this.actions.names());
+    }
+
+    private List<RegisteredAction> toRegisteredActions(Collection<? extends Action> actions, ActionOptions options) {
+        List<RegisteredAction> registeredActions = new ArrayList<>(actions.size());
+        for (Action action : actions) {
+            checkActionName(action);
+            registeredActions.add(new RegisteredAction(action, options));
+        }
+        return registeredActions;
+    }
+
+    /**
+     * Add an interceptor after the already added ones, so it is the innermost one.
+     * The interceptor chain is compiled now, so handling of a request does not iterate over the interceptors.
+     *
+     * @param interceptor an interceptor
+     */
+    public synchronized void addInterceptor(ActionInterceptor interceptor) {
+        if(interceptor == null) {
+            throw new RasaException("An interceptor must be provided");
+        }
+        List<ActionInterceptor> interceptors = new ArrayList<>(this.interceptors);
+        interceptors.add(interceptor);
+        compileInterceptors(interceptors);
+    }
+
+    /**
+     * @param interceptor an interceptor which should be removed
+     */
+    public synchronized void removeInterceptor(ActionInterceptor interceptor) {
+        List<ActionInterceptor> interceptors = new ArrayList<>(this.interceptors);
+        if(interceptors.remove(interceptor)) {
+            compileInterceptors(interceptors);
+        }
+    }
+
+    /**
+     * @return immutable list of the interceptors, starting with the outermost one
+     */
+    public List<ActionInterceptor> getInterceptors() {
+        return this.interceptors;
+    }
+
+    private void compileInterceptors(List<ActionInterceptor> interceptors) {
+        ActionInterceptor.Chain chain = null;
+        ActionInterceptor.Chain asyncChain = null;
+        ActionInterceptor.Chain batchChain = null;
+        if(interceptors.isEmpty() == false) {
+            chain = actionRequest -> {
+                try {
+                    return CompletableFuture.completedFuture(runIntercepted(actionRequest));
+                } catch (RuntimeException e) {
+                    return failedFuture(e);
+                }
+            };
+            asyncChain = this::runAsyncIntercepted;
+            batchChain = actionRequest -> {
+                try {
+                    return CompletableFuture.completedFuture(runWithBatchDispatcher(actionRequest));
+                } catch (RuntimeException e) {
+                    return failedFuture(e);
+                }
+            };
+            for (int i = interceptors.size() - 1; i >= 0; i--) {
+                chain = new InterceptorLink(interceptors.get(i), chain);
+                asyncChain = new InterceptorLink(interceptors.get(i), asyncChain);
+                batchChain = new InterceptorLink(interceptors.get(i), batchChain);
+            }
+        }
+        this.interceptors = Collections.unmodifiableList(interceptors);
+        this.interceptorChain = chain;
+        this.asyncInterceptorChain = asyncChain;
+        this.batchInterceptorChain = batchChain;
+    }
+
+    private static CompletableFuture<ActionResponse> failedFuture(Throwable error) {
+        CompletableFuture<ActionResponse> failure = new CompletableFuture<>();
+        failure.completeExceptionally(error);
+        return failure;
+    }
+
+    private void checkActionName(Action action) {
         if(StringUtils.isNullOrEmpty(action.name())) {
             throw new RasaException("An action must implement a name");
         }
-        this.actions.put(action.name(), action);
-        LOGGER.info("Registered action for '{}'.", action.name());
     }
 
-    private void validateEvents(List<AbstractEvent> events, String actionName) {
-        Iterator<AbstractEvent> eventsIterator = events.iterator();
-        while (eventsIterator.hasNext()) {
-            AbstractEvent event = eventsIterator.next();
-            if(StringUtils.isNullOrEmpty(event.getEvent())) {
-                LOGGER.error("Your action '{}' returned an event without the 'event' property. Event will be ignored! Event: {}", actionName, event);
-                eventsIterator.remove();
+    /**
+     * @return the given events, or a copy of them without the invalid ones
+     */
+    private static List<AbstractEvent> validateEvents(List<AbstractEvent> events, String actionName) {
+        // the list returned by an action may be immutable, so it is copied only when an event has to be removed
+        List<AbstractEvent> validEvents = null;
+        int index = 0;
+        for (AbstractEvent event : events) {
+            if(isValidEvent(event, actionName)) {
+                if(validEvents != null) {
+                    validEvents.add(event);
+                }
+            } else {
+                if(validEvents == null) {
+                    validEvents = new ArrayList<>(events.size());
+                    validEvents.addAll(events.subList(0, index));
+                }
             }
+            index++;
         }
+        return validEvents != null ? validEvents : events;
+    }
+
+    private static boolean isValidEvent(AbstractEvent event, String actionName) {
+        if(event != null && StringUtils.isNotNullOrEmpty(event.getEvent())) {
+            return true;
+        }
+        LOGGER.error("Your action '{}' returned an event without the 'event' property. Event will be ignored! Event: {}", actionName, event);
+        return false;
     }
 
     public ActionResponse run(ActionRequest actionRequest) {
+        ActionInterceptor.Chain chain = this.interceptorChain;
+        if(chain == null) {
+            return runIntercepted(actionRequest);
+        }
+        return FutureUtils.join(chain.proceed(actionRequest));
+    }
+
+    private ActionResponse runIntercepted(ActionRequest actionRequest) {
+        ResponseCache cache = this.responseCache;
+        if((cache == null && this.requestCoalescing == false) || StringUtils.isNullOrEmpty(actionRequest.getNextAction())) {
+            return runLimited(actionRequest);
+        }
+
+        RequestFingerprint fingerprint = RequestFingerprint.of(actionRequest);
+        if(cache != null) {
+            ResponseCache.Entry cached = cache.get(fingerprint);
+            if(cached != null) {
+                LOGGER.debug("Returning the cached response of '{}'", actionRequest.getNextAction());
+                return cached.getResponse();
+            }
+        }
+        if(this.requestCoalescing == false) {
+            return runAndCache(actionRequest, fingerprint);
+        }
+
+        CompletableFuture<ActionResponse> execution = new CompletableFuture<>();
+        CompletableFuture<ActionResponse> inFlightExecution = this.inFlightRequests.putIfAbsent(fingerprint, execution);
+        if(inFlightExecution != null) {
+            LOGGER.debug("Joining the in-flight execution of '{}' for the same request", actionRequest.getNextAction());
+            return FutureUtils.join(inFlightExecution);
+        }
+
+        ActionResponse actionResponse;
+        try {
+            actionResponse = runAndCache(actionRequest, fingerprint);
+        } catch (RuntimeException e) {
+            this.inFlightRequests.remove(fingerprint, execution);
+            execution.completeExceptionally(e);
+            throw e;
+        }
+        this.inFlightRequests.remove(fingerprint, execution);
+        execution.complete(actionResponse);
+        return actionResponse;
+    }
+
+    /**
+     * Run an action (see {@link #run(ActionRequest)}) and return its response encoded as JSON.
+     * When the response is cached (see {@link #setResponseCache(ResponseCache)}) and there are no interceptors,
+     * its already encoded form is returned, so a retried request is answered without running the action or serializing its response again.
+     *
+     * @param actionRequest an action request
+     * @return UTF-8 encoded JSON response
+     */
+    public byte[] runEncoded(ActionRequest actionRequest) {
+        ResponseCache cache = this.responseCache;
+        if(cache != null && this.interceptorChain == null && StringUtils.isNotNullOrEmpty(actionRequest.getNextAction())) {
+            ResponseCache.Entry cached = cache.get(RequestFingerprint.of(actionRequest));
+            if(cached != null) {
+                LOGGER.debug("Returning the cached response of '{}'", actionRequest.getNextAction());
+                return cached.getEncoded();
+            }
+        }
+        return SerializationUtils.toJsonBytes(run(actionRequest));
+    }
+
+    /**
+     * Run an action and write its response straight to the given stream (see {@link ActionCodec#newResponseWriter(OutputStream)}),
+     * without building an {@link ActionResponse}. Events of a {@link StreamingAction} are written as soon as they are emitted,
+     * events of other actions as soon as they are returned, and then the messages of the dispatcher.
+     * Events without the 'event' property are skipped while they are written.
+     * With interceptors, the response cache or request coalescing the whole response is built first, because they need it.
+     * A hedged action (see {@link ActionOptions#isIdempotent()}) is written when its winning attempt completes.
+     *
+     * @param actionRequest an action request
+     * @param codec a codec of the response
+     * @param outputStream a stream which the encoded response is written to (e.g. a body of an HTTP response)
+     * @throws ActionTimeoutException if the action has exceeded its deadline after some of its events were written.
+     *                                The partially written response (as well as the one of a failed action) has to be discarded
+     */
+    public void runEncoded(ActionRequest actionRequest, ActionCodec codec, OutputStream outputStream) {
+        if(this.interceptorChain != null || this.responseCache != null || this.requestCoalescing) {
+            codec.encode(run(actionRequest), outputStream);
+            return;
+        }
+        try (ActionResponseWriter writer = codec.newResponseWriter(outputStream)) {
+            ActionResponse actionResponse = runLimited(actionRequest, writer);
+            if(writer.isStarted() == false) {
+                // nothing was written yet, e.g. a fallback is returned
+                writer.writeResponse(actionResponse);
+            } else if(writer.isFinished() == false) {
+                throw new ActionTimeoutException("Action '" + actionRequest.getNextAction() + "' has exceeded its deadline after a part of its response was written");
+            }
+        }
+    }
+
+    private ActionResponse runAndCache(ActionRequest actionRequest, RequestFingerprint fingerprint) {
+        ActionResponse actionResponse = runLimited(actionRequest);
+        cacheResponse(actionRequest, fingerprint, actionResponse);
+        return actionResponse;
+    }
+
+    private void cacheResponse(ActionRequest actionRequest, RequestFingerprint fingerprint, ActionResponse actionResponse) {
+        ResponseCache cache = this.responseCache;
+        if(cache == null || actionResponse == null) {
+            return;
+        }
+        // the fallback is not cached, so a retry gets a chance to run the action
+        RegisteredAction registeredAction = this.actions.get(actionRequest.getNextAction());
+        if(isTimeoutFallback(registeredAction, actionResponse) == false && isRejectionFallback(registeredAction, actionResponse) == false) {
+            cache.put(fingerprint, actionResponse);
+        }
+    }
+
+    private boolean isTimeoutFallback(RegisteredAction registeredAction, ActionResponse actionResponse) {
+        return actionResponse == this.timeoutFallback
+                || (registeredAction != null && actionResponse == registeredAction.getOptions().getTimeoutFallback());
+    }
+
+    /**
+     * @return <code>true</code> - if the response is the fallback of an open circuit or of a full bulkhead. Otherwise - <code>false</code>
+     */
+    private static boolean isRejectionFallback(RegisteredAction registeredAction, ActionResponse actionResponse) {
+        return registeredAction != null && (actionResponse == registeredAction.getOptions().getCircuitOpenFallback()
+                || actionResponse == registeredAction.getOptions().getBulkheadFullFallback());
+    }
+
+    private ActionResponse runLimited(ActionRequest actionRequest) {
+        return runLimited(actionRequest, null);
+    }
+
+    /**
+     * @param writer a writer of the response, or <code>null</code> if the response is returned
+     */
+    private ActionResponse runLimited(ActionRequest actionRequest, ActionResponseWriter writer) {
+        AdaptiveConcurrencyLimiter limiter = this.concurrencyLimiter;
+        if(limiter == null) {
+            return run(actionRequest, new CollectingDispatcher(), false, writer);
+        }
+        int inFlight = limiter.acquire();
+        long startNanos = System.nanoTime();
+        try {
+            ActionResponse actionResponse = run(actionRequest, new CollectingDispatcher(), false, writer);
+            releaseOnResponse(limiter, actionRequest, actionResponse, startNanos, inFlight);
+            return actionResponse;
+        } catch (RuntimeException e) {
+            releaseOnError(limiter, e);
+            throw e;
+        }
+    }
+
+    /**
+     * A fallback is not a served request: the timeout fallback is reported as a dropped request (so the limit shrinks
+     * under timeouts), and the fallback of an open circuit or of a full bulkhead is ignored
+     */
+    private void releaseOnResponse(AdaptiveConcurrencyLimiter limiter, ActionRequest actionRequest, ActionResponse actionResponse,
+                                   long startNanos, int inFlight) {
+        RegisteredAction registeredAction = actionResponse != null && actionRequest.getNextAction() != null
+                ? this.actions.get(actionRequest.getNextAction())
+                : null;
+        if(actionResponse != null && isTimeoutFallback(registeredAction, actionResponse)) {
+            limiter.onDropped();
+        } else if(actionResponse != null && isRejectionFallback(registeredAction, actionResponse)) {
+            limiter.onIgnored();
+        } else {
+            limiter.onSuccess(System.nanoTime() - startNanos, inFlight);
+        }
+    }
+
+    private static void releaseOnError(AdaptiveConcurrencyLimiter limiter, Throwable error) {
+        if(error instanceof ActionTimeoutException) {
+            limiter.onDropped();
+        } else {
+            limiter.onIgnored();
+        }
+    }
+
+    private ActionResponse run(ActionRequest actionRequest, CollectingDispatcher dispatcher) {
+        return run(actionRequest, dispatcher, false);
+    }
+
+    private ActionResponse run(ActionRequest actionRequest, CollectingDispatcher dispatcher, boolean warmUp) {
+        return run(actionRequest, dispatcher, warmUp, null);
+    }
+
+    /**
+     * @param writer a writer of the response, or <code>null</code> if the response is returned. The response of an action,
+     *               which has completed, is written and <code>null</code> is returned. Other responses (e.g. fallbacks) are returned
+     */
+    private ActionResponse run(ActionRequest actionRequest, CollectingDispatcher dispatcher, boolean warmUp, ActionResponseWriter writer) {
         // Check for version of Rasa.
         VersionChecker.checkVersionCompatibility(actionRequest.getVersion());
 
         if(StringUtils.isNotNullOrEmpty(actionRequest.getNextAction())) {
-            LOGGER.debug("Received request to run '{}'", actionRequest.getNextAction());
-            Action action = actions.get(actionRequest.getNextAction());
-            if(action == null) {
-                throw new RasaException("No registered Action found for name '"+actionRequest.getNextAction()+"'.");
+            RegisteredAction registeredAction = findAction(actionRequest);
+            if(registeredAction.isHedged() && warmUp == false) {
+                // attempts of a hedged action run in parallel on the executor
+                return FutureUtils.join(startAsync(actionRequest));
+            }
+            // failures of synthetic warm-up requests must not open the circuit
+            CircuitBreaker circuitBreaker = warmUp ? CircuitBreaker.disabled(registeredAction.name()) : registeredAction.getCircuitBreaker();
+            CircuitBreaker.Permit circuitPermit = circuitBreaker.tryAcquire();
+            if(circuitPermit == null) {
+                return circuitOpenFallback(registeredAction);
+            }
+            ActionContext context = ActionContext.withTimeout(timeoutOf(registeredAction), warmUp);
+            Bulkhead bulkhead = registeredAction.getBulkhead();
+            boolean admitted;
+            try {
+                admitted = awaitPermit(bulkhead, context);
+            } catch (BulkheadFullException e) {
+                circuitPermit.onIgnored();
+                return bulkheadFullFallback(registeredAction, e);
+            } catch (RuntimeException e) {
+                circuitPermit.onIgnored();
+                throw e;
+            }
+            if(admitted == false) {
+                circuitPermit.onIgnored();
+                return timeoutFallback(registeredAction);
+            }
+            ScheduledFuture<?> deadline = scheduleDeadline(context, context::cancel);
+            long startNanos = System.nanoTime();
+            List<AbstractEvent> events = null;
+            RuntimeException error = null;
+            context.enter();
+            try {
+                Action action = registeredAction.getAction();
+                if(writer != null && action instanceof StreamingAction) {
+                    ((StreamingAction) action).run(dispatcher, actionRequest.getTracker(), actionRequest.getDomain(), context,
+                            eventWriter(actionRequest.getNextAction(), context, writer));
+                } else {
+                    events = action.run(dispatcher, actionRequest.getTracker(), actionRequest.getDomain(), context);
+                }
+            } catch (RuntimeException e) {
+                error = e;
+            } finally {
+                context.exit();
+                cancelDeadline(deadline);
+                bulkhead.release();
+            }
+            // the wait of an asynchronous action may time out just before the deadline cancels the context
+            boolean timedOut = context.isCancelled() || (error instanceof ActionTimeoutException && context.isExpired());
+            recordOutcome(circuitPermit, startNanos, error, timedOut);
+            if(timedOut) {
+                // the action was interrupted, because its deadline has passed
+                return timeoutFallback(registeredAction);
+            }
+            if(error != null) {
+                throw error;
+            }
+            if(writer != null) {
+                writeResponse(actionRequest, events, dispatcher, writer);
+                return null;
+            }
+            return buildResponse(actionRequest, events, dispatcher);
+        }
+        LOGGER.warn("Received an action call without an action.");
+        return null;
+    }
+
+    /**
+     * @return a sink of events of a streaming action, which writes the valid ones until the deadline cancels the action
+     */
+    private static Consumer<AbstractEvent> eventWriter(String actionName, ActionContext context, ActionResponseWriter writer) {
+        return event -> {
+            if(context.isCancelled() == false && isValidEvent(event, actionName)) {
+                writer.writeEvent(event);
             }
+        };
+    }
 
-            CollectingDispatcher dispatcher = new CollectingDispatcher();
-            List<AbstractEvent> events = action.run(dispatcher, actionRequest.getTracker(), actionRequest.getDomain());
-            if(events == null) {
-                // make sure the action did not just return "null"...
-                events = Collections.emptyList();
+    private static void writeResponse(ActionRequest actionRequest, List<AbstractEvent> events, CollectingDispatcher dispatcher, ActionResponseWriter writer) {
+        if(events != null) {
+            for (AbstractEvent event : events) {
+                if(isValidEvent(event, actionRequest.getNextAction())) {
+                    writer.writeEvent(event);
+                }
             }
-            validateEvents(events, actionRequest.getNextAction());
-            LOGGER.debug("Finished running '{}'", actionRequest.getNextAction());
-            ActionResponse actionResponse = new ActionResponse();
-            actionResponse.setEvents(events);
-            // Rasa API require list of key-value pair objects
-            actionResponse.setResponses(Arrays.asList(dispatcher.getMessages()));
+        }
+        LOGGER.debug("Finished running '{}'", actionRequest.getNextAction());
+        // Rasa API require list of key-value pair objects
+        writer.finish(Arrays.asList(dispatcher.collectMessages()));
+    }
+
+    /**
+     * Run many requests (e.g. recorded conversations for an offline evaluation) in parallel
+     * on the {@link ForkJoinPool#commonPool()}.
+     *
+     * @param actionRequests action requests
+     * @return results in the same order as the given requests
+     * @see #runBatch(Collection, ForkJoinPool)
+     */
+    public List<BatchResult> runBatch(Collection<ActionRequest> actionRequests) {
+        return runBatch(actionRequests, ForkJoinPool.commonPool());
+    }
 
+    /**
+     * Run many requests (e.g. recorded conversations for an offline evaluation) in parallel on the given pool.
+     * Every request passes the interceptors (see {@link #addInterceptor(ActionInterceptor)}) and every worker thread
+     * reuses its own dispatcher. A failure of a request is captured in its result and does not abort the batch.
+     *
+     * @param actionRequests action requests
+     * @param pool a fork-join pool which runs the requests
+     * @return results in the same order as the given requests
+     */
+    public List<BatchResult> runBatch(Collection<ActionRequest> actionRequests, ForkJoinPool pool) {
+        ActionRequest[] requests = actionRequests.toArray(new ActionRequest[0]);
+        BatchResult[] results = new BatchResult[requests.length];
+        pool.invoke(new BatchTask(requests, results, 0, requests.length));
+        return Arrays.asList(results);
+    }
+
+    private BatchResult runBatchItem(ActionRequest actionRequest) {
+        ActionInterceptor.Chain chain = this.batchInterceptorChain;
+        try {
+            ActionResponse actionResponse = chain == null ? runWithBatchDispatcher(actionRequest) : FutureUtils.join(chain.proceed(actionRequest));
+            return BatchResult.success(actionRequest, actionResponse);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Running '{}' within a batch failed: {}", actionRequest.getNextAction(), e.toString());
+            return BatchResult.failure(actionRequest, e);
+        }
+    }
+
+    private ActionResponse runWithBatchDispatcher(ActionRequest actionRequest) {
+        CollectingDispatcher dispatcher = BATCH_DISPATCHERS.get();
+        try {
+            return run(actionRequest, dispatcher);
+        } finally {
+            dispatcher.clear();
+        }
+    }
+
+    /**
+     * Warm up all registered actions (see {@link #warmUp(Collection)}) using synthetic requests:
+     * an empty tracker and an empty domain.
+     */
+    public void warmUp() {
+        List<String> actionNames = this.actions.names();
+        List<ActionRequest> actionRequests = new ArrayList<>(actionNames.size());
+        for (String actionName : actionNames) {
+            Tracker tracker = new Tracker();
+            tracker.setSenderId(WARM_UP_SENDER_ID);
+            tracker.setSlots(new HashMap<>());
+            tracker.setEvents(new ArrayList<>());
+            tracker.setLatestMessage(new Tracker.Message());
+
+            ActionRequest actionRequest = new ActionRequest();
+            actionRequest.setNextAction(actionName);
+            actionRequest.setSenderId(WARM_UP_SENDER_ID);
+            actionRequest.setTracker(tracker);
+            actionRequest.setDomain(new Domain());
+            actionRequest.setVersion(VersionChecker.SUPPORTED_VERSION);
+            actionRequests.add(actionRequest);
+        }
+        warmUp(actionRequests);
+    }
+
+    /**
+     * Run the given requests (e.g. recorded ones) repeatedly, until this executor is ready (see {@link #isReady()}),
+     * so the actions, the form logic and the serialization of responses get JIT-compiled before real traffic arrives.
+     * Actions are run with a warm-up context (see {@link ActionContext#isWarmUp()}), so they can suppress
+     * their side effects, and messages sent through the dispatcher are discarded. A failure of a request is ignored.
+     * The requests do not pass the interceptors (see {@link #addInterceptor(ActionInterceptor)}), so synthetic
+     * requests are neither authorized nor counted by metrics of real traffic.
+     *
+     * @param actionRequests action requests
+     */
+    public void warmUp(Collection<ActionRequest> actionRequests) {
+        CollectingDispatcher dispatcher = new CollectingDispatcher(true);
+        while (isReady() == false) {
+            for (ActionRequest actionRequest : actionRequests) {
+                try {
+                    SerializationUtils.toJsonBytes(run(actionRequest, dispatcher, true));
+                } catch (RuntimeException e) {
+                    LOGGER.debug("Warming up '{}' failed: {}", actionRequest.getNextAction(), e.toString());
+                } finally {
+                    dispatcher.clear();
+                }
+            }
+            this.completedWarmUpIterations.incrementAndGet();
+        }
+        LOGGER.info("Warmed up actions in {} iterations.", this.completedWarmUpIterations.get());
+    }
+
+    /**
+     * @return <code>true</code> - if a warm-up has completed the configured number of warm-up iterations
+     *         (see {@link #setWarmUpIterations(int)}). Otherwise (e.g. before any warm-up) - <code>false</code>
+     */
+    public boolean isReady() {
+        return this.completedWarmUpIterations.get() >= this.warmUpIterations;
+    }
+
+    /**
+     * Run an action asynchronously. Checking of the version, looking up of the action, running it and
+     * building of the response are all done on the executor of this action executor, so the calling thread
+     * (e.g. a thread of the HTTP server) is released immediately.
+     *
+     * An {@link AsyncAction} is composed without blocking any thread while its stage is not completed.
+     *
+     * @param actionRequest an action request
+     * @return future completed with the action response, or completed exceptionally if the action failed
+     */
+    public CompletableFuture<ActionResponse> runAsync(ActionRequest actionRequest) {
+        ActionInterceptor.Chain chain = this.asyncInterceptorChain;
+        if(chain == null) {
+            return runAsyncIntercepted(actionRequest);
+        }
+        return chain.proceed(actionRequest).toCompletableFuture();
+    }
+
+    private CompletableFuture<ActionResponse> runAsyncIntercepted(ActionRequest actionRequest) {
+        ResponseCache cache = this.responseCache;
+        if((cache == null && this.requestCoalescing == false) || StringUtils.isNullOrEmpty(actionRequest.getNextAction())) {
+            return runAsyncLimited(actionRequest);
+        }
+
+        RequestFingerprint fingerprint = RequestFingerprint.of(actionRequest);
+        if(cache != null) {
+            ResponseCache.Entry cached = cache.get(fingerprint);
+            if(cached != null) {
+                LOGGER.debug("Returning the cached response of '{}'", actionRequest.getNextAction());
+                return CompletableFuture.completedFuture(cached.getResponse());
+            }
+        }
+        if(this.requestCoalescing == false) {
+            return runAsyncAndCache(actionRequest, fingerprint);
+        }
+
+        CompletableFuture<ActionResponse> execution = new CompletableFuture<>();
+        CompletableFuture<ActionResponse> inFlightExecution = this.inFlightRequests.putIfAbsent(fingerprint, execution);
+        if(inFlightExecution != null) {
+            LOGGER.debug("Joining the in-flight execution of '{}' for the same request", actionRequest.getNextAction());
+        } else {
+            inFlightExecution = execution;
+            runAsyncAndCache(actionRequest, fingerprint).whenComplete((actionResponse, error) -> {
+                this.inFlightRequests.remove(fingerprint, execution);
+                if(error != null) {
+                    execution.completeExceptionally(FutureUtils.unwrap(error));
+                } else {
+                    execution.complete(actionResponse);
+                }
+            });
+        }
+        // every caller gets its own future, so cancelling it does not affect the others
+        return inFlightExecution.thenApply(Function.identity());
+    }
+
+    private CompletableFuture<ActionResponse> runAsyncAndCache(ActionRequest actionRequest, RequestFingerprint fingerprint) {
+        CompletableFuture<ActionResponse> response = runAsyncLimited(actionRequest);
+        if(this.responseCache == null) {
+            return response;
+        }
+        return response.thenApply(actionResponse -> {
+            cacheResponse(actionRequest, fingerprint, actionResponse);
             return actionResponse;
+        });
+    }
+
+    private CompletableFuture<ActionResponse> runAsyncLimited(ActionRequest actionRequest) {
+        AdaptiveConcurrencyLimiter limiter = this.concurrencyLimiter;
+        if(limiter == null) {
+            return startAsync(actionRequest);
         }
-        LOGGER.warn("Received an action call without an action.");
-        return null;
+        int inFlight;
+        try {
+            inFlight = limiter.acquire();
+        } catch (ConcurrencyLimitExceededException e) {
+            // shed the request immediately, without occupying the executor
+            return failedFuture(e);
+        }
+        long startNanos = System.nanoTime();
+        // the permit is released before the returned future is completed
+        return startAsync(actionRequest).whenComplete((actionResponse, error) -> {
+            if(error == null) {
+                releaseOnResponse(limiter, actionRequest, actionResponse, startNanos, inFlight);
+            } else {
+                releaseOnError(limiter, FutureUtils.unwrap(error));
+            }
+        });
+    }
+
+    private CompletableFuture<ActionResponse> startAsync(ActionRequest actionRequest) {
+        // the deadline is counted from receiving the request, so it includes waiting for the executor
+        RegisteredAction registeredAction = actionRequest.getNextAction() != null ? actions.get(actionRequest.getNextAction()) : null;
+        Executor requestExecutor = executorFor(actionRequest, registeredAction);
+        ActionContext context = ActionContext.withTimeout(timeoutOf(registeredAction));
+        CompletableFuture<ActionResponse> response = CompletableFuture.supplyAsync(() -> startAction(actionRequest, context, requestExecutor), requestExecutor)
+                .thenCompose(Function.identity());
+        if(context.hasDeadline() == false) {
+            return response;
+        }
+
+        CompletableFuture<ActionResponse> result = new CompletableFuture<>();
+        ScheduledFuture<?> deadline = scheduleDeadline(context, () -> {
+            // cancelling returns the permits of the action before the caller gets the fallback
+            context.cancel();
+            try {
+                result.complete(timeoutFallback(registeredAction));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        response.whenComplete((actionResponse, error) -> {
+            cancelDeadline(deadline);
+            if(context.isCancelled()) {
+                // the deadline has passed, so the result is completed with the fallback
+                return;
+            }
+            if(error != null) {
+                result.completeExceptionally(FutureUtils.unwrap(error));
+            } else {
+                result.complete(actionResponse);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Select executor for the request. A {@link PartitionedExecutor} runs all requests of one conversation on the same lane.
+     * A {@link PriorityExecutor} queues the request with the priority of the requested action.
+     *
+     * @param actionRequest an action request
+     * @param registeredAction the requested action, or <code>null</code> if it is not registered
+     * @return executor which should run the request
+     */
+    private Executor executorFor(ActionRequest actionRequest, RegisteredAction registeredAction) {
+        if(this.executor instanceof PriorityExecutor) {
+            PriorityExecutor priorityExecutor = (PriorityExecutor) this.executor;
+            ActionPriority priority = registeredAction != null ? registeredAction.getPriority() : ActionPriority.NORMAL;
+            return task -> priorityExecutor.execute(priority, task);
+        }
+        if(this.executor instanceof PartitionedExecutor) {
+            PartitionedExecutor partitionedExecutor = (PartitionedExecutor) this.executor;
+            String partitionKey = conversationKey(actionRequest);
+            return task -> partitionedExecutor.execute(partitionKey, task);
+        }
+        return this.executor;
+    }
+
+    private static String conversationKey(ActionRequest actionRequest) {
+        if(StringUtils.isNotNullOrEmpty(actionRequest.getSenderId())) {
+            return actionRequest.getSenderId();
+        }
+        Tracker tracker = actionRequest.getTracker();
+        if(tracker == null) {
+            return null;
+        }
+        return StringUtils.isNotNullOrEmpty(tracker.getConversationId()) ? tracker.getConversationId() : tracker.getSenderId();
+    }
+
+    private CompletionStage<ActionResponse> startAction(ActionRequest actionRequest, ActionContext context, Executor requestExecutor) {
+        // Check for version of Rasa.
+        VersionChecker.checkVersionCompatibility(actionRequest.getVersion());
+
+        if(StringUtils.isNullOrEmpty(actionRequest.getNextAction())) {
+            LOGGER.warn("Received an action call without an action.");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        RegisteredAction registeredAction = findAction(actionRequest);
+        CircuitBreaker.Permit circuitPermit = registeredAction.getCircuitBreaker().tryAcquire();
+        if(circuitPermit == null) {
+            return CompletableFuture.completedFuture(circuitOpenFallback(registeredAction));
+        }
+        Bulkhead bulkhead = registeredAction.getBulkhead();
+        CompletableFuture<Void> permit;
+        try {
+            permit = bulkhead.acquire();
+        } catch (BulkheadFullException e) {
+            circuitPermit.onIgnored();
+            return CompletableFuture.completedFuture(bulkheadFullFallback(registeredAction, e));
+        } catch (RuntimeException e) {
+            circuitPermit.onIgnored();
+            throw e;
+        }
+        if(permit.isDone()) {
+            return runAdmitted(actionRequest, registeredAction, circuitPermit, context, requestExecutor);
+        }
+        LOGGER.debug("Queued '{}', because it has reached its concurrency limit", actionRequest.getNextAction());
+        return permit.thenComposeAsync(admitted -> runAdmitted(actionRequest, registeredAction, circuitPermit, context, requestExecutor), requestExecutor);
+    }
+
+    /**
+     * Run an action, which has got a permit from its bulkhead. The permits of the bulkhead and of the circuit breaker
+     * are released when the action completes, or when its deadline passes (even if the action does not stop).
+     */
+    private CompletionStage<ActionResponse> runAdmitted(ActionRequest actionRequest, RegisteredAction registeredAction,
+                                                        CircuitBreaker.Permit circuitPermit, ActionContext context, Executor requestExecutor) {
+        Bulkhead bulkhead = registeredAction.getBulkhead();
+        if(context.isCancelled()) {
+            // the deadline has passed while waiting, so the fallback has been already returned
+            LOGGER.debug("Skipping '{}', because its deadline has passed", actionRequest.getNextAction());
+            bulkhead.release();
+            circuitPermit.onIgnored();
+            return CompletableFuture.completedFuture(null);
+        }
+        long startNanos = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        context.onCancel(() -> releasePermits(released, bulkhead, circuitPermit, startNanos, null, true));
+        CompletionStage<ActionResponse> stage;
+        try {
+            stage = registeredAction.isHedged()
+                    ? invokeHedged(actionRequest, registeredAction, context, requestExecutor)
+                    : invokeAction(actionRequest, registeredAction.getAction(), context, requestExecutor);
+        } catch (RuntimeException e) {
+            releasePermits(released, bulkhead, circuitPermit, startNanos, e, context.isCancelled());
+            throw e;
+        }
+        return stage.whenComplete((actionResponse, error) ->
+                releasePermits(released, bulkhead, circuitPermit, startNanos, error != null ? FutureUtils.unwrap(error) : null, context.isCancelled()));
+    }
+
+    /**
+     * Release the permits of a call once, either on its completion or on its deadline
+     */
+    private static void releasePermits(AtomicBoolean released, Bulkhead bulkhead, CircuitBreaker.Permit circuitPermit,
+                                       long startNanos, Throwable error, boolean cancelled) {
+        if(released.compareAndSet(false, true)) {
+            bulkhead.release();
+            recordOutcome(circuitPermit, startNanos, error, cancelled);
+        }
+    }
+
+    /**
+     * Run an idempotent action. When the first attempt runs longer than the percentile of recent latencies of the action,
+     * a second attempt is started on the executor of the request. The second attempt needs its own permit of the bulkhead
+     * of the action, but it never waits for one. Every attempt has its own context and dispatcher, the response
+     * of the attempt finishing first is returned and the other attempt is cancelled. The latency of every attempt
+     * is recorded, so the slow attempts which have lost the race still raise the percentile.
+     */
+    private CompletionStage<ActionResponse> invokeHedged(ActionRequest actionRequest, RegisteredAction registeredAction,
+                                                         ActionContext context, Executor requestExecutor) {
+        long hedgeDelayNanos = registeredAction.getLatency().getPercentileNanos();
+        if(hedgeDelayNanos < 0) {
+            // there are not enough samples to know how long the action usually runs
+            CompletableFuture<ActionResponse> response = new CompletableFuture<>();
+            runAttempt(response, actionRequest, registeredAction, context, context, requestExecutor);
+            return response;
+        }
+
+        CompletableFuture<ActionResponse> winner = new CompletableFuture<>();
+        ActionContext firstAttempt = context.fork();
+        ActionContext secondAttempt = context.fork();
+        Bulkhead bulkhead = registeredAction.getBulkhead();
+        ScheduledFuture<?> hedge = DeadlineTimer.INSTANCE.schedule(() -> requestExecutor.execute(() -> {
+            if(winner.isDone()) {
+                return;
+            }
+            if(bulkhead.tryAcquire() == false) {
+                LOGGER.debug("Skipping a hedged attempt of '{}', because it has reached its concurrency limit", registeredAction.name());
+                return;
+            }
+            LOGGER.debug("Starting a hedged attempt of '{}'", registeredAction.name());
+            AtomicBoolean released = new AtomicBoolean();
+            Runnable releasePermit = () -> {
+                if(released.compareAndSet(false, true)) {
+                    bulkhead.release();
+                }
+            };
+            // the attempt which has lost the race, or has exceeded the deadline, does not hold the permit anymore
+            secondAttempt.onCancel(releasePermit);
+            runAttempt(winner, actionRequest, registeredAction, context, secondAttempt, requestExecutor)
+                    .whenComplete((actionResponse, error) -> releasePermit.run());
+        }), hedgeDelayNanos, TimeUnit.NANOSECONDS);
+        winner.whenComplete((actionResponse, error) -> {
+            hedge.cancel(false);
+            // the response of the other attempt is not needed anymore
+            firstAttempt.cancel();
+            secondAttempt.cancel();
+        });
+        runAttempt(winner, actionRequest, registeredAction, context, firstAttempt, requestExecutor);
+        return winner;
+    }
+
+    /**
+     * @return stage of the attempt, which is completed when the attempt finishes (even if it has lost the race)
+     */
+    private CompletionStage<ActionResponse> runAttempt(CompletableFuture<ActionResponse> winner, ActionRequest actionRequest, RegisteredAction registeredAction,
+                                                       ActionContext context, ActionContext attemptContext, Executor requestExecutor) {
+        long startNanos = System.nanoTime();
+        CompletionStage<ActionResponse> stage;
+        try {
+            stage = invokeAction(actionRequest, registeredAction.getAction(), attemptContext, requestExecutor);
+        } catch (RuntimeException e) {
+            completeAttempt(winner, context, attemptContext, null, e);
+            return failedFuture(e);
+        }
+        stage.whenComplete((actionResponse, error) -> {
+            recordAttemptLatency(registeredAction, context, attemptContext, startNanos, error);
+            completeAttempt(winner, context, attemptContext, actionResponse, error);
+        });
+        return stage;
     }
 
+    /**
+     * Record the latency of an attempt, which has completed or has lost the race. An attempt which has lost the race
+     * is cancelled (and maybe interrupted), so the time it has run is a lower bound of its latency, but it is still
+     * recorded - otherwise the percentile would only ever see the fast attempts. The attempts which have failed,
+     * or have exceeded the deadline, are not recorded.
+     */
+    private static void recordAttemptLatency(RegisteredAction registeredAction, ActionContext context, ActionContext attemptContext,
+                                             long startNanos, Throwable error) {
+        if(context.isCancelled()) {
+            return;
+        }
+        if(error == null || attemptContext.isCancelled()) {
+            registeredAction.getLatency().record(System.nanoTime() - startNanos);
+        }
+    }
+
+    private static void completeAttempt(CompletableFuture<ActionResponse> winner, ActionContext context, ActionContext attemptContext,
+                                        ActionResponse actionResponse, Throwable error) {
+        if(context.isCancelled()) {
+            // the deadline has passed, so the fallback has been already returned
+            winner.complete(null);
+        } else if(attemptContext.isCancelled()) {
+            // the attempt has lost the race
+            return;
+        } else if(error != null) {
+            winner.completeExceptionally(FutureUtils.unwrap(error));
+        } else {
+            winner.complete(actionResponse);
+        }
+    }
+
+    private CompletionStage<ActionResponse> invokeAction(ActionRequest actionRequest, Action action, ActionContext context, Executor requestExecutor) {
+        CollectingDispatcher dispatcher = new CollectingDispatcher();
+        if(action instanceof AsyncAction) {
+            CompletionStage<List<AbstractEvent>> stage = ((AsyncAction) action).runAsync(dispatcher, actionRequest.getTracker(), actionRequest.getDomain(), context);
+            if(stage == null) {
+                // make sure the action did not just return "null"...
+                return CompletableFuture.completedFuture(buildResponse(actionRequest, null, dispatcher));
+            }
+            // interrupting the runner does not stop a stage, so it is cancelled when the deadline passes
+            context.onCancel(() -> stage.toCompletableFuture().cancel(true));
+            return stage.thenApplyAsync(events -> context.isCancelled() ? null : buildResponse(actionRequest, events, dispatcher), requestExecutor);
+        }
+
+        List<AbstractEvent> events;
+        context.enter();
+        try {
+            events = action.run(dispatcher, actionRequest.getTracker(), actionRequest.getDomain(), context);
+        } finally {
+            context.exit();
+        }
+        return CompletableFuture.completedFuture(context.isCancelled() ? null : buildResponse(actionRequest, events, dispatcher));
+    }
+
+    private RegisteredAction findAction(ActionRequest actionRequest) {
+        LOGGER.debug("Received request to run '{}'", actionRequest.getNextAction());
+        RegisteredAction registeredAction = actions.get(actionRequest.getNextAction());
+        if(registeredAction == null) {
+            throw new RasaException("No registered Action found for name '"+actionRequest.getNextAction()+"'.");
+        }
+        return registeredAction;
+    }
+
+    /**
+     * Acquire a permit of the bulkhead, waiting (if the call is queued) no longer than the deadline
+     *
+     * @return <code>true</code> - if the permit is acquired. <code>false</code> - if the deadline has passed
+     */
+    private static boolean awaitPermit(Bulkhead bulkhead, ActionContext context) {
+        CompletableFuture<Void> permit = bulkhead.acquire();
+        if(permit.isDone()) {
+            return true;
+        }
+        try {
+            if(context.hasDeadline()) {
+                permit.get(Math.max(0L, context.getRemainingNanos()), TimeUnit.NANOSECONDS);
+            } else {
+                permit.get();
+            }
+            return true;
+        } catch (TimeoutException e) {
+            // the permit might have been granted in the meantime
+            return bulkhead.cancel(permit) == false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if(bulkhead.cancel(permit) == false) {
+                bulkhead.release();
+            }
+            throw new RasaException(e);
+        } catch (ExecutionException e) {
+            throw FutureUtils.asRuntimeException(e.getCause());
+        }
+    }
+
+    private Duration timeoutOf(RegisteredAction registeredAction) {
+        if(registeredAction != null && registeredAction.getOptions().getTimeout() != null) {
+            return registeredAction.getOptions().getTimeout();
+        }
+        return this.defaultTimeout;
+    }
+
+    private ActionResponse timeoutFallback(RegisteredAction registeredAction) {
+        ActionResponse fallback = registeredAction != null ? registeredAction.getOptions().getTimeoutFallback() : null;
+        if(fallback == null) {
+            fallback = this.timeoutFallback;
+        }
+        String actionName = registeredAction != null ? registeredAction.name() : null;
+        if(fallback == null) {
+            throw new ActionTimeoutException("Action '" + actionName + "' has exceeded its deadline");
+        }
+        LOGGER.warn("Action '{}' has exceeded its deadline. Returning the fallback response.", actionName);
+        return fallback;
+    }
+
+    private ActionResponse bulkheadFullFallback(RegisteredAction registeredAction, BulkheadFullException rejection) {
+        ActionResponse fallback = registeredAction.getOptions().getBulkheadFullFallback();
+        if(fallback == null) {
+            throw rejection;
+        }
+        LOGGER.debug("Bulkhead of '{}' is full. Returning the fallback response.", registeredAction.name());
+        return fallback;
+    }
+
+    private ActionResponse circuitOpenFallback(RegisteredAction registeredAction) {
+        ActionResponse fallback = registeredAction.getOptions().getCircuitOpenFallback();
+        if(fallback == null) {
+            throw new CircuitBreakerOpenException("Circuit breaker of action '" + registeredAction.name() + "' is open");
+        }
+        LOGGER.debug("Circuit breaker of '{}' is open. Returning the fallback response.", registeredAction.name());
+        return fallback;
+    }
+
+    /**
+     * Report the outcome of a call to the circuit breaker (through the permit of the call). Rejections of an action (e.g. by a form) are regular
+     * outcomes, while exceeding the deadline is a failure.
+     */
+    private static void recordOutcome(CircuitBreaker.Permit circuitPermit, long startNanos, Throwable error, boolean cancelled) {
+        long durationNanos = System.nanoTime() - startNanos;
+        if(cancelled || (error != null && error instanceof ActionExecutionRejectionException == false)) {
+            circuitPermit.onError(durationNanos);
+        } else {
+            circuitPermit.onSuccess(durationNanos);
+        }
+    }
+
+    private static ScheduledFuture<?> scheduleDeadline(ActionContext context, Runnable onDeadline) {
+        if(context.hasDeadline() == false) {
+            return null;
+        }
+        return DeadlineTimer.INSTANCE.schedule(onDeadline, context.getRemainingNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static void cancelDeadline(ScheduledFuture<?> deadline) {
+        if(deadline != null) {
+            deadline.cancel(false);
+        }
+    }
+
+    private ActionResponse buildResponse(ActionRequest actionRequest, List<AbstractEvent> events, CollectingDispatcher dispatcher) {
+        if(events == null) {
+            // make sure the action did not just return "null"...
+            events = Collections.emptyList();
+        }
+        events = validateEvents(events, actionRequest.getNextAction());
+        LOGGER.debug("Finished running '{}'", actionRequest.getNextAction());
+        ActionResponse actionResponse = new ActionResponse();
+        actionResponse.setEvents(events);
+        // Rasa API require list of key-value pair objects
+        actionResponse.setResponses(Arrays.asList(dispatcher.collectMessages()));
+
+        return actionResponse;
+    }
+
+    /**
+     * @return executor used to run asynchronous requests
+     */
+    public Executor getExecutor() {
+        return this.executor;
+    }
+
+    public Duration getDefaultTimeout() {
+        return this.defaultTimeout;
+    }
+
+    /**
+     * Set time budget of actions which do not define their own timeout. When the deadline passes,
+     * the action is cancelled and the timeout fallback is returned.
+     *
+     * @param defaultTimeout a timeout, or <code>null</code> for no deadline
+     */
+    public void setDefaultTimeout(Duration defaultTimeout) {
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    public ActionResponse getTimeoutFallback() {
+        return this.timeoutFallback;
+    }
+
+    /**
+     * Set response returned when an action, which does not define its own fallback, exceeds its deadline
+     * (e.g. a response with an "utter_sorry" template and no events).
+     * If there is no fallback, {@link ActionTimeoutException} is thrown.
+     *
+     * @param timeoutFallback a fallback response
+     */
+    public void setTimeoutFallback(ActionResponse timeoutFallback) {
+        this.timeoutFallback = timeoutFallback;
+    }
+
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return this.concurrencyLimiter;
+    }
+
+    /**
+     * Set limiter of requests in flight, whose limit adapts to the measured latency of actions
+     * (e.g. <code>new AdaptiveConcurrencyLimiter(GradientLimit.builder().build())</code>).
+     * Requests over the limit are rejected immediately with {@link ConcurrencyLimitExceededException}.
+     * Batches (see {@link #runBatch(Collection)}) are not limited.
+     *
+     * @param concurrencyLimiter a limiter, or <code>null</code> to run requests without any limit
+     */
+    public void setConcurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    public boolean isRequestCoalescing() {
+        return this.requestCoalescing;
+    }
+
+    /**
+     * <p>Enable coalescing of requests. A request, which is identical to a request in flight (the same action, sender
+     * and tracker state, e.g. retried by Rasa after a timeout), does not run the action again, but waits for
+     * and shares the response of the request in flight. So side-effecting backends are not called twice.</p>
+     *
+     * @param requestCoalescing <code>true</code> - to enable coalescing of requests
+     */
+    public void setRequestCoalescing(boolean requestCoalescing) {
+        this.requestCoalescing = requestCoalescing;
+    }
+
+    public ResponseCache getResponseCache() {
+        return this.responseCache;
+    }
+
+    /**
+     * Set cache of responses, which answers requests retried by Rasa (the same action, sender and tracker state)
+     * without running the action again. Fallback responses are not cached.
+     *
+     * @param responseCache a response cache, or <code>null</code> to disable caching
+     */
+    public void setResponseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    public int getWarmUpIterations() {
+        return this.warmUpIterations;
+    }
+
+    /**
+     * Set number of warm-up iterations (runs of all warm-up requests) which have to be completed
+     * before this executor reports that it is ready. By default one iteration is required.
+     *
+     * @param warmUpIterations number of warm-up iterations (at least one)
+     */
+    public void setWarmUpIterations(int warmUpIterations) {
+        if(warmUpIterations < 1) {
+            throw new RasaException("Number of warm-up iterations must be positive");
+        }
+        this.warmUpIterations = warmUpIterations;
+    }
+
+    public int getCompletedWarmUpIterations() {
+        return this.completedWarmUpIterations.get();
+    }
+
+    /**
+     * @param actionName an action name
+     * @return number of calls of the action which are running now
+     */
+    public int getInFlightCalls(String actionName) {
+        return getBulkhead(actionName).getInFlightCalls();
+    }
+
+    /**
+     * @param actionName an action name
+     * @return number of calls of the action which wait, because the action has reached its concurrency limit
+     */
+    public int getQueuedCalls(String actionName) {
+        return getBulkhead(actionName).getQueuedCalls();
+    }
+
+    private Bulkhead getBulkhead(String actionName) {
+        RegisteredAction registeredAction = this.actions.get(actionName);
+        if(registeredAction == null) {
+            throw new RasaException("No registered Action found for name '" + actionName + "'.");
+        }
+        return registeredAction.getBulkhead();
+    }
+
+    /**
+     * @return immutable list of names of the registered actions
+     */
     public List<String> getRegisteredActionNames() {
-        return new ArrayList<>(this.actions.keySet());
+        return this.actions.names();
+    }
+
+    //=================================================
+    // Inner Types
+    //=================================================
+
+    /**
+     * Link of a compiled interceptor chain
+     */
+    private static final class InterceptorLink implements ActionInterceptor.Chain {
+        private final ActionInterceptor interceptor;
+        private final ActionInterceptor.Chain next;
+
+        private InterceptorLink(ActionInterceptor interceptor, ActionInterceptor.Chain next) {
+            this.interceptor = interceptor;
+            this.next = next;
+        }
+
+        @Override
+        public CompletionStage<ActionResponse> proceed(ActionRequest actionRequest) {
+            CompletionStage<ActionResponse> response;
+            try {
+                response = this.interceptor.intercept(actionRequest, this.next);
+            } catch (RuntimeException e) {
+                // outer interceptors see the failure as a failed stage, the same way as failures of actions
+                return failedFuture(e);
+            }
+            if(response == null) {
+                return failedFuture(new RasaException("An interceptor must not return null"));
+            }
+            return response;
+        }
+    }
+
+    /**
+     * Timer which cancels actions exceeding their deadlines
+     */
+    private static final class DeadlineTimer {
+        private static final ScheduledThreadPoolExecutor INSTANCE = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "rasa-action-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            INSTANCE.setRemoveOnCancelPolicy(true);
+        }
+    }
+
+    /**
+     * Splits a batch of requests until the range is small enough to be run by a single worker
+     */
+    private final class BatchTask extends RecursiveAction {
+        private static final int THRESHOLD = 16;
+
+        private final ActionRequest[] requests;
+        private final BatchResult[] results;
+        private final int from;
+        private final int to;
+
+        private BatchTask(ActionRequest[] requests, BatchResult[] results, int from, int to) {
+            this.requests = requests;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = runBatchItem(requests[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BatchTask(requests, results, from, middle), new BatchTask(requests, results, middle, to));
+        }
     }
 }
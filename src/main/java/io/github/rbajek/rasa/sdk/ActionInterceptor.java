@@ -0,0 +1,47 @@
+package io.github.rbajek.rasa.sdk;
+
+import io.github.rbajek.rasa.sdk.dto.ActionRequest;
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * <p>Cross-cutting behaviour (e.g. authorization, metrics, caching or tenant routing) around every request
+ * handled by {@link ActionExecutor}, registered with {@link ActionExecutor#addInterceptor(ActionInterceptor)}.</p>
+ *
+ * <p>Interceptors are compiled into a fixed chain when they are registered. The first registered interceptor
+ * is the outermost one. The same chain handles both {@link ActionExecutor#run(ActionRequest)} and
+ * {@link ActionExecutor#runAsync(ActionRequest)}.</p>
+ *
+ * @author Rafał Bajek
+ */
+@FunctionalInterface
+public interface ActionInterceptor {
+
+    /**
+     * Handle the request. An interceptor may pass the (possibly changed) request to the rest of the chain,
+     * answer it by itself (e.g. from a cache), or reject it by throwing an exception or returning a failed stage.
+     *
+     * @param actionRequest an action request
+     * @param chain the rest of the chain, which ends with running the action
+     * @return stage completed with the action response
+     */
+    CompletionStage<ActionResponse> intercept(ActionRequest actionRequest, Chain chain);
+
+    //=================================================
+    // Inner Types
+    //=================================================
+
+    /**
+     * The rest of the interceptor chain
+     */
+    @FunctionalInterface
+    interface Chain {
+
+        /**
+         * @param actionRequest an action request
+         * @return stage completed with the action response, or completed exceptionally if handling of the request failed
+         */
+        CompletionStage<ActionResponse> proceed(ActionRequest actionRequest);
+    }
+}
@@ -0,0 +1,166 @@
+package io.github.rbajek.rasa.sdk;
+
+import io.github.rbajek.rasa.sdk.action.ActionPriority;
+import io.github.rbajek.rasa.sdk.concurrent.CircuitBreakerConfig;
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * Options of a registered action (see {@link ActionExecutor#registerAction(io.github.rbajek.rasa.sdk.action.Action, ActionOptions)})
+ *
+ * @author Rafał Bajek
+ */
+@Getter
+@ToString
+public class ActionOptions {
+
+    private static final ActionOptions DEFAULTS = builder().build();
+
+    //=================================================
+    // Class fields
+    //=================================================
+
+    /**
+     * Time budget of the action. If not set, the default timeout of the executor is used
+     */
+    private Duration timeout;
+
+    /**
+     * Response returned when the action exceeds its deadline. If not set, the timeout fallback of the executor is used
+     */
+    private ActionResponse timeoutFallback;
+
+    /**
+     * Maximum number of concurrent calls of the action. If not set, the calls are not limited
+     */
+    private Integer maxConcurrentCalls;
+
+    /**
+     * Maximum number of calls waiting when the concurrency limit is reached. Calls over this limit are rejected
+     */
+    private int maxQueuedCalls;
+
+    /**
+     * Response returned when a call is rejected, because both the concurrency limit and the queue are full
+     * (e.g. a response with an "utter_busy" template and no events). If not set, the call is rejected
+     * with {@link io.github.rbajek.rasa.sdk.exception.BulkheadFullException}
+     */
+    private ActionResponse bulkheadFullFallback;
+
+    /**
+     * Priority of the action. If not set, the priority declared by the action is used (see {@link io.github.rbajek.rasa.sdk.action.Action#priority()})
+     */
+    private ActionPriority priority;
+
+    /**
+     * Circuit breaker of the action. If not set, calls of the action are never refused
+     */
+    private CircuitBreakerConfig circuitBreaker;
+
+    /**
+     * Response returned when the circuit breaker of the action is open. If not set, the call is rejected
+     * with {@link io.github.rbajek.rasa.sdk.exception.CircuitBreakerOpenException}
+     */
+    private ActionResponse circuitOpenFallback;
+
+    /**
+     * Whether the action is idempotent and read-only (e.g. a lookup), so it can be run more than once for one request.
+     * Calls of such action are hedged: when the first attempt runs longer than usual, a second attempt is started
+     * and the response of the one finishing first is returned.
+     * <p>
+     * Note that the attempts of a hedged action always run on the executor of the {@link ActionExecutor}, also when
+     * it is called with the synchronous {@link ActionExecutor#run(io.github.rbajek.rasa.sdk.dto.ActionRequest)} -
+     * the calling thread then only waits for the response, so the action must not rely on running on the calling thread
+     * (e.g. on its thread-local state)
+     */
+    private boolean idempotent;
+
+    /**
+     * Percentile of recent latencies of an idempotent action, after which a hedged attempt is started
+     */
+    private double hedgeDelayPercentile = 0.95;
+
+    //=================================================
+    // Constructors
+    //=================================================
+
+    private ActionOptions() {
+    }
+
+    public static ActionOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    //=================================================
+    // Builder
+    //=================================================
+
+    public static class Builder {
+        private final ActionOptions instance = new ActionOptions();
+
+        public Builder timeout(Duration timeout) {
+            this.instance.timeout = timeout;
+            return this;
+        }
+
+        public Builder timeoutFallback(ActionResponse timeoutFallback) {
+            this.instance.timeoutFallback = timeoutFallback;
+            return this;
+        }
+
+        public Builder maxConcurrentCalls(int maxConcurrentCalls) {
+            this.instance.maxConcurrentCalls = maxConcurrentCalls;
+            return this;
+        }
+
+        public Builder maxQueuedCalls(int maxQueuedCalls) {
+            this.instance.maxQueuedCalls = maxQueuedCalls;
+            return this;
+        }
+
+        public Builder bulkheadFullFallback(ActionResponse bulkheadFullFallback) {
+            this.instance.bulkheadFullFallback = bulkheadFullFallback;
+            return this;
+        }
+
+        public Builder priority(ActionPriority priority) {
+            this.instance.priority = priority;
+            return this;
+        }
+
+        public Builder circuitBreaker(CircuitBreakerConfig circuitBreaker) {
+            this.instance.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        public Builder circuitOpenFallback(ActionResponse circuitOpenFallback) {
+            this.instance.circuitOpenFallback = circuitOpenFallback;
+            return this;
+        }
+
+        public Builder idempotent(boolean idempotent) {
+            this.instance.idempotent = idempotent;
+            return this;
+        }
+
+        public Builder hedgeDelayPercentile(double hedgeDelayPercentile) {
+            if(hedgeDelayPercentile <= 0 || hedgeDelayPercentile > 1) {
+                throw new RasaException("Percentile must be greater than 0 and not greater than 1");
+            }
+            this.instance.hedgeDelayPercentile = hedgeDelayPercentile;
+            return this;
+        }
+
+        public ActionOptions build() {
+            return this.instance;
+        }
+    }
+}
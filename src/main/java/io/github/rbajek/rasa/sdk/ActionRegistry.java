@@ -0,0 +1,84 @@
+package io.github.rbajek.rasa.sdk;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * <p>Copy-on-write registry of actions.</p>
+ *
+ * <p>Every modification builds a new immutable snapshot and publishes it atomically, so lookups never lock
+ * nor allocate and can safely run while actions are (re)registered.</p>
+ *
+ * @author Rafał Bajek
+ */
+final class ActionRegistry {
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    /**
+     * Find an action by its name
+     *
+     * @param name an action name
+     * @return the registered action or <code>null</code> if there is no action with the given name
+     */
+    RegisteredAction get(String name) {
+        return this.snapshot.get().actions.get(name);
+    }
+
+    /**
+     * @return immutable list of names of the registered actions
+     */
+    List<String> names() {
+        return this.snapshot.get().names;
+    }
+
+    /**
+     * @return immutable collection of the registered actions
+     */
+    Collection<RegisteredAction> actions() {
+        return this.snapshot.get().actions.values();
+    }
+
+    void register(Collection<RegisteredAction> actions) {
+        update(current -> actions.forEach(action -> current.put(action.name(), action)));
+    }
+
+    void unregister(Collection<String> names) {
+        update(current -> names.forEach(current::remove));
+    }
+
+    void replace(Collection<RegisteredAction> actions) {
+        update(current -> {
+            current.clear();
+            actions.forEach(action -> current.put(action.name(), action));
+        });
+    }
+
+    private void update(Consumer<Map<String, RegisteredAction>> modification) {
+        Snapshot current;
+        Snapshot next;
+        do {
+            current = this.snapshot.get();
+            Map<String, RegisteredAction> actions = new HashMap<>(current.actions);
+            modification.accept(actions);
+            next = new Snapshot(actions);
+        } while (this.snapshot.compareAndSet(current, next) == false);
+    }
+
+    //=================================================
+    // Inner Types
+    //=================================================
+
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(Collections.emptyMap());
+
+        private final Map<String, RegisteredAction> actions;
+        private final List<String> names;
+
+        private Snapshot(Map<String, RegisteredAction> actions) {
+            this.actions = Collections.unmodifiableMap(actions);
+            this.names = Collections.unmodifiableList(new ArrayList<>(actions.keySet()));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.rbajek.rasa.sdk;
+
+import io.github.rbajek.rasa.sdk.dto.ActionRequest;
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Result of running a single request of a batch (see {@link ActionExecutor#runBatch(java.util.Collection)})
+ *
+ * @author Rafał Bajek
+ */
+@Getter
+@ToString
+public class BatchResult {
+
+    private final ActionRequest request;
+    private final ActionResponse response;
+    private final Throwable error;
+
+    private BatchResult(ActionRequest request, ActionResponse response, Throwable error) {
+        this.request = request;
+        this.response = response;
+        this.error = error;
+    }
+
+    static BatchResult success(ActionRequest request, ActionResponse response) {
+        return new BatchResult(request, response, null);
+    }
+
+    static BatchResult failure(ActionRequest request, Throwable error) {
+        return new BatchResult(request, null, error);
+    }
+
+    /**
+     * @return <code>true</code> - if the request was run successfully. Otherwise - <code>false</code>
+     */
+    public boolean isSuccess() {
+        return this.error == null;
+    }
+}
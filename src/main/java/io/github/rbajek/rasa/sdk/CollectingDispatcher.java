@@ -1,7 +1,9 @@
 package io.github.rbajek.rasa.sdk;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +26,42 @@ public class CollectingDispatcher {
 
     private Map<String, Object> messages = new HashMap<>();
 
+    /**
+     * Whether this dispatcher is reused to handle many requests (e.g. by {@link ActionExecutor#runBatch(Collection)})
+     */
+    @Getter(AccessLevel.NONE)
+    private final boolean reusable;
+
+    public CollectingDispatcher() {
+        this(false);
+    }
+
+    CollectingDispatcher(boolean reusable) {
+        this.reusable = reusable;
+    }
+
+    /**
+     * Collect messages which should be returned in the response. A reusable dispatcher is cleared,
+     * so it is ready to handle the next request.
+     *
+     * @return map of messages
+     */
+    Map<String, Object> collectMessages() {
+        if(this.reusable == false) {
+            return this.messages;
+        }
+        Map<String, Object> collected = new HashMap<>(this.messages);
+        this.messages.clear();
+        return collected;
+    }
+
+    /**
+     * Remove all collected messages
+     */
+    void clear() {
+        this.messages.clear();
+    }
+
     /**
      * Sends a message with custom elements to the output channel.
      *
@@ -0,0 +1,60 @@
+package io.github.rbajek.rasa.sdk;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Records recent latencies of an action and estimates their percentile (e.g. to delay hedged attempts).</p>
+ *
+ * <p>The latest samples are kept in a lock-free ring. The percentile is recomputed every few samples,
+ * so reading it costs nothing.</p>
+ *
+ * @author Rafał Bajek
+ */
+final class LatencyRecorder {
+
+    private static final int MAX_SAMPLES = 128;
+
+    /**
+     * Minimum number of samples to estimate the percentile, and the interval of recomputing it
+     */
+    private static final int RECOMPUTE_INTERVAL = 16;
+
+    private final double percentile;
+    private final AtomicLongArray samples = new AtomicLongArray(MAX_SAMPLES);
+    private final AtomicLong recorded = new AtomicLong();
+    private volatile long percentileNanos = -1L;
+
+    /**
+     * @param percentile an estimated percentile (from 0 to 1)
+     */
+    LatencyRecorder(double percentile) {
+        this.percentile = percentile;
+    }
+
+    void record(long latencyNanos) {
+        long index = this.recorded.getAndIncrement();
+        this.samples.set((int) (index % MAX_SAMPLES), latencyNanos);
+        if((index + 1) % RECOMPUTE_INTERVAL == 0) {
+            recompute((int) Math.min(index + 1, MAX_SAMPLES));
+        }
+    }
+
+    /**
+     * @return the estimated percentile of latencies in nanoseconds, or <code>-1</code> if there are not enough samples yet
+     */
+    long getPercentileNanos() {
+        return this.percentileNanos;
+    }
+
+    private void recompute(int size) {
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = this.samples.get(i);
+        }
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(this.percentile * size) - 1;
+        this.percentileNanos = sorted[Math.max(0, Math.min(size - 1, rank))];
+    }
+}
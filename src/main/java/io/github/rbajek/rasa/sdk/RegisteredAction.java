@@ -0,0 +1,48 @@
+package io.github.rbajek.rasa.sdk;
+
+import io.github.rbajek.rasa.sdk.action.Action;
+import io.github.rbajek.rasa.sdk.action.ActionPriority;
+import io.github.rbajek.rasa.sdk.concurrent.Bulkhead;
+import io.github.rbajek.rasa.sdk.concurrent.CircuitBreaker;
+import lombok.Getter;
+
+/**
+ * An action registered within the {@link ActionExecutor} together with its options
+ *
+ * @author Rafał Bajek
+ */
+@Getter
+final class RegisteredAction {
+
+    private final Action action;
+    private final ActionOptions options;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final ActionPriority priority;
+
+    /**
+     * Latencies of an idempotent action, which is hedged. <code>null</code> for other actions
+     */
+    private final LatencyRecorder latency;
+
+    RegisteredAction(Action action, ActionOptions options) {
+        this.action = action;
+        this.options = options;
+        this.bulkhead = options.getMaxConcurrentCalls() != null
+                ? new Bulkhead(action.name(), options.getMaxConcurrentCalls(), options.getMaxQueuedCalls())
+                : Bulkhead.unlimited(action.name());
+        this.circuitBreaker = options.getCircuitBreaker() != null
+                ? new CircuitBreaker(action.name(), options.getCircuitBreaker())
+                : CircuitBreaker.disabled(action.name());
+        this.priority = options.getPriority() != null ? options.getPriority() : action.priority();
+        this.latency = options.isIdempotent() ? new LatencyRecorder(options.getHedgeDelayPercentile()) : null;
+    }
+
+    boolean isHedged() {
+        return this.latency != null;
+    }
+
+    String name() {
+        return this.action.name();
+    }
+}
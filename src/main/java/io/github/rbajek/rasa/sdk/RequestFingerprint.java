@@ -0,0 +1,54 @@
+package io.github.rbajek.rasa.sdk;
+
+import io.github.rbajek.rasa.sdk.dto.ActionRequest;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+import io.github.rbajek.rasa.sdk.util.CollectionsUtils;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * <p>Cheap fingerprint of an action request, which identifies the same request sent again by Rasa
+ * (e.g. retried after a timeout).</p>
+ *
+ * <p>It consists of the action name, the sender, the number of tracker events, the timestamp of the latest event
+ * and the hash of the slots, so the whole tracker does not have to be compared.</p>
+ *
+ * @author Rafał Bajek
+ */
+@EqualsAndHashCode
+@ToString
+final class RequestFingerprint {
+
+    private final String actionName;
+    private final String senderId;
+    private final int eventCount;
+    private final Long latestEventTimestamp;
+    private final int slotsHash;
+
+    private RequestFingerprint(String actionName, String senderId, int eventCount, Long latestEventTimestamp, int slotsHash) {
+        this.actionName = actionName;
+        this.senderId = senderId;
+        this.eventCount = eventCount;
+        this.latestEventTimestamp = latestEventTimestamp;
+        this.slotsHash = slotsHash;
+    }
+
+    static RequestFingerprint of(ActionRequest actionRequest) {
+        Tracker tracker = actionRequest.getTracker();
+        if(tracker == null) {
+            return new RequestFingerprint(actionRequest.getNextAction(), actionRequest.getSenderId(), 0, null, 0);
+        }
+
+        String senderId = actionRequest.getSenderId() != null ? actionRequest.getSenderId() : tracker.getSenderId();
+        List<Tracker.Event> events = tracker.getEvents();
+        int eventCount = 0;
+        Long latestEventTimestamp = null;
+        if(CollectionsUtils.isNotEmpty(events)) {
+            eventCount = events.size();
+            latestEventTimestamp = events.get(eventCount - 1).getTimestamp();
+        }
+        return new RequestFingerprint(actionRequest.getNextAction(), senderId, eventCount, latestEventTimestamp, tracker.getSlots().hashCode());
+    }
+}
@@ -0,0 +1,184 @@
+package io.github.rbajek.rasa.sdk;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.github.rbajek.rasa.sdk.codec.JsonBindings;
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+import io.github.rbajek.rasa.sdk.util.SerializationUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>Bounded cache of responses of action requests, which expire after the given time.</p>
+ *
+ * <p>It makes retried requests (e.g. sent again by Rasa after a network failure) idempotent: a retry is answered
+ * from the cache, so the action is not run and its side effects are not repeated. The requests are identified
+ * by the next action, the sender and the latest events of the tracker.</p>
+ *
+ * <p>A response is encoded (as JSON) when it is cached, so changes of the returned response do not change the cached one.
+ * A retry gets a copy of the response decoded from the cached one (the events, which are immutable, are shared),
+ * or the encoded response itself, see {@link ActionExecutor#runEncoded(io.github.rbajek.rasa.sdk.dto.ActionRequest)}.</p>
+ *
+ * <p>When the cache is full, the oldest entries are evicted first. Expired entries are removed when a response is cached.</p>
+ *
+ * @author Rafał Bajek
+ */
+public class ResponseCache {
+
+    private static final ObjectReader RESPONSES_READER = JsonBindings.shared().readerFor(List.class).at("/responses");
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentMap<RequestFingerprint, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Sizes of the map and of the queue (the size of a {@link ConcurrentLinkedQueue} is counted by traversing it)
+     */
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger queuedEntries = new AtomicInteger();
+
+    /**
+     * @param maxEntries maximum number of cached responses
+     * @param ttl time after which a cached response expires
+     */
+    public ResponseCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    ResponseCache(int maxEntries, Duration ttl, LongSupplier nanoClock) {
+        if(maxEntries <= 0 || ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new RasaException("Invalid response cache parameters: maxEntries=" + maxEntries + ", ttl=" + ttl);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    //=================================================
+    // Class methods
+    //=================================================
+
+    Entry get(RequestFingerprint fingerprint) {
+        Entry entry = this.entries.get(fingerprint);
+        if(entry == null) {
+            return null;
+        }
+        if(isExpired(entry)) {
+            remove(entry);
+            return null;
+        }
+        return entry;
+    }
+
+    Entry put(RequestFingerprint fingerprint, ActionResponse actionResponse) {
+        Entry entry = new Entry(fingerprint, actionResponse, this.nanoClock.getAsLong() + this.ttlNanos);
+        if(this.entries.put(fingerprint, entry) == null) {
+            this.size.incrementAndGet();
+        }
+        this.insertionOrder.add(entry);
+        this.queuedEntries.incrementAndGet();
+        evict();
+        return entry;
+    }
+
+    /**
+     * All entries live equally long, so the oldest ones expire first
+     */
+    private void evict() {
+        Entry oldest;
+        while ((oldest = this.insertionOrder.peek()) != null) {
+            // the queue keeps also references to entries which have been already replaced or removed
+            boolean cached = this.entries.get(oldest.fingerprint) == oldest;
+            if(cached && this.size.get() <= this.maxEntries && this.queuedEntries.get() <= 2 * this.maxEntries && isExpired(oldest) == false) {
+                return;
+            }
+            if(this.insertionOrder.remove(oldest)) {
+                this.queuedEntries.decrementAndGet();
+                remove(oldest);
+            }
+        }
+    }
+
+    private void remove(Entry entry) {
+        if(this.entries.remove(entry.fingerprint, entry)) {
+            this.size.decrementAndGet();
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return this.nanoClock.getAsLong() - entry.expiresAtNanos >= 0;
+    }
+
+    /**
+     * @return number of cached responses (including the expired ones, which have not been removed yet)
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     * Remove all cached responses
+     */
+    public void clear() {
+        Entry oldest;
+        while ((oldest = this.insertionOrder.poll()) != null) {
+            this.queuedEntries.decrementAndGet();
+            remove(oldest);
+        }
+    }
+
+    //=================================================
+    // Inner Types
+    //=================================================
+
+    static final class Entry {
+        private final RequestFingerprint fingerprint;
+        private final AbstractEvent[] events;
+        private final byte[] encoded;
+        private final long expiresAtNanos;
+
+        private Entry(RequestFingerprint fingerprint, ActionResponse response, long expiresAtNanos) {
+            this.fingerprint = fingerprint;
+            this.events = response.getEvents() != null ? response.getEvents().toArray(new AbstractEvent[0]) : null;
+            this.encoded = SerializationUtils.toJsonBytes(response);
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        /**
+         * @return a copy of the cached response
+         */
+        @SuppressWarnings("unchecked")
+        ActionResponse getResponse() {
+            ActionResponse response = new ActionResponse();
+            response.setEvents(this.events != null ? new ArrayList<>(Arrays.asList(this.events)) : null);
+            try {
+                response.setResponses((List<Map<String, Object>>) RESPONSES_READER.readValue(this.encoded));
+            } catch (IOException e) {
+                throw new RasaException(e);
+            }
+            return response;
+        }
+
+        /**
+         * @return a copy of the response encoded as JSON
+         */
+        byte[] getEncoded() {
+            return this.encoded.clone();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.rbajek.rasa.sdk.action;
 
+import io.github.rbajek.rasa.sdk.ActionContext;
 import io.github.rbajek.rasa.sdk.CollectingDispatcher;
 import io.github.rbajek.rasa.sdk.dto.Domain;
 import io.github.rbajek.rasa.sdk.dto.Tracker;
@@ -33,4 +34,29 @@ public interface Action {
      * @return A list of {@link AbstractEvent} instances that is returned through the endpoint
      */
     List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain);
+
+    /**
+     * Execute the side effects of this action within the given context. Override this method to access
+     * the remaining time budget of the action (see {@link ActionContext#getRemainingMillis()}).
+     * By default {@link #run(CollectingDispatcher, Tracker, Domain)} is called.
+     *
+     * @param dispatcher the dispatcher which is used to send messages back to the user
+     * @param tracker the state tracker for the current user
+     * @param domain the bot's domain
+     * @param context the context of this run of the action
+     * @return A list of {@link AbstractEvent} instances that is returned through the endpoint
+     */
+    default List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain, ActionContext context) {
+        return run(dispatcher, tracker, domain);
+    }
+
+    /**
+     * Priority class of this action. It is used to order requests waiting for a worker, when actions are run
+     * by {@link io.github.rbajek.rasa.sdk.concurrent.PriorityExecutor}. By default {@link ActionPriority#NORMAL} is returned.
+     *
+     * @return priority of this action
+     */
+    default ActionPriority priority() {
+        return ActionPriority.NORMAL;
+    }
 }
@@ -0,0 +1,25 @@
+package io.github.rbajek.rasa.sdk.action;
+
+/**
+ * Priority class of an action (see {@link Action#priority()}). When actions are run by
+ * {@link io.github.rbajek.rasa.sdk.concurrent.PriorityExecutor}, actions of a higher priority get workers first.
+ *
+ * @author Rafał Bajek
+ */
+public enum ActionPriority {
+
+    /**
+     * Actions on the interactive critical path of a conversation (e.g. forms)
+     */
+    HIGH,
+
+    /**
+     * General actions
+     */
+    NORMAL,
+
+    /**
+     * Background work, e.g. analytics or bulk lookups
+     */
+    LOW
+}
@@ -0,0 +1,69 @@
+package io.github.rbajek.rasa.sdk.action;
+
+import io.github.rbajek.rasa.sdk.ActionContext;
+import io.github.rbajek.rasa.sdk.CollectingDispatcher;
+import io.github.rbajek.rasa.sdk.dto.Domain;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+import io.github.rbajek.rasa.sdk.util.FutureUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Next action to be taken in response to a dialogue state, which does not block a thread while waiting
+ * for external systems (e.g. REST services or databases).
+ *
+ * @author Rafał Bajek
+ */
+public interface AsyncAction extends Action {
+
+    /**
+     * Execute the side effects of this action asynchronously
+     *
+     * @param dispatcher the dispatcher which is used to send messages back to the user.
+     *                   Use {@link CollectingDispatcher#utterMessage(String, Map)} or any other method.
+     * @param tracker the state tracker for the current user (see {@link Action#run(CollectingDispatcher, Tracker, Domain)})
+     * @param domain the bot's domain
+     * @return A stage completed with the list of {@link AbstractEvent} instances that is returned through the endpoint
+     */
+    CompletionStage<List<AbstractEvent>> runAsync(CollectingDispatcher dispatcher, Tracker tracker, Domain domain);
+
+    /**
+     * Execute the side effects of this action asynchronously within the given context. Override this method to access
+     * the remaining time budget of the action (see {@link ActionContext#getRemainingMillis()}).
+     * By default {@link #runAsync(CollectingDispatcher, Tracker, Domain)} is called.
+     *
+     * @param dispatcher the dispatcher which is used to send messages back to the user
+     * @param tracker the state tracker for the current user
+     * @param domain the bot's domain
+     * @param context the context of this run of the action
+     * @return A stage completed with the list of {@link AbstractEvent} instances that is returned through the endpoint
+     */
+    default CompletionStage<List<AbstractEvent>> runAsync(CollectingDispatcher dispatcher, Tracker tracker, Domain domain, ActionContext context) {
+        return runAsync(dispatcher, tracker, domain);
+    }
+
+    /**
+     * Execute the side effects of this action and wait for its result
+     *
+     * @see #runAsync(CollectingDispatcher, Tracker, Domain)
+     */
+    @Override
+    default List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+        return FutureUtils.await(runAsync(dispatcher, tracker, domain));
+    }
+
+    /**
+     * Execute the side effects of this action within the given context and wait for its result, at most until
+     * the deadline of the context (then the stage returned by {@link #runAsync(CollectingDispatcher, Tracker, Domain, ActionContext)}
+     * is cancelled)
+     *
+     * @see #runAsync(CollectingDispatcher, Tracker, Domain, ActionContext)
+     */
+    @Override
+    default List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain, ActionContext context) {
+        return FutureUtils.await(runAsync(dispatcher, tracker, domain, context), context);
+    }
+}
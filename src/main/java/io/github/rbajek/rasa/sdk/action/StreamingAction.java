@@ -0,0 +1,56 @@
+package io.github.rbajek.rasa.sdk.action;
+
+import io.github.rbajek.rasa.sdk.ActionContext;
+import io.github.rbajek.rasa.sdk.CollectingDispatcher;
+import io.github.rbajek.rasa.sdk.dto.Domain;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Next action to be taken in response to a dialogue state, which emits its events one by one instead of returning a list of them
+ * (e.g. resets of many slots). When it is run by {@link io.github.rbajek.rasa.sdk.ActionExecutor#runEncoded(io.github.rbajek.rasa.sdk.dto.ActionRequest,
+ * io.github.rbajek.rasa.sdk.codec.ActionCodec, java.io.OutputStream)}, every event is written to the response as soon as it is emitted.
+ * Otherwise the emitted events are collected into a list.
+ *
+ * @author Rafał Bajek
+ */
+public interface StreamingAction extends Action {
+
+    /**
+     * Execute the side effects of this action within the given context and emit its events
+     *
+     * @param dispatcher the dispatcher which is used to send messages back to the user
+     * @param tracker the state tracker for the current user (see {@link Action#run(CollectingDispatcher, Tracker, Domain)})
+     * @param domain the bot's domain
+     * @param context the context of this run of the action
+     * @param events a sink of {@link AbstractEvent} instances that are returned through the endpoint.
+     *               It must be called by the thread running this action
+     */
+    void run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain, ActionContext context, Consumer<AbstractEvent> events);
+
+    /**
+     * Execute the side effects of this action and collect its events
+     *
+     * @see #run(CollectingDispatcher, Tracker, Domain, ActionContext, Consumer)
+     */
+    @Override
+    default List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+        return run(dispatcher, tracker, domain, ActionContext.withoutDeadline());
+    }
+
+    /**
+     * Execute the side effects of this action within the given context and collect its events
+     *
+     * @see #run(CollectingDispatcher, Tracker, Domain, ActionContext, Consumer)
+     */
+    @Override
+    default List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain, ActionContext context) {
+        List<AbstractEvent> events = new ArrayList<>();
+        run(dispatcher, tracker, domain, context, events::add);
+        return events;
+    }
+}
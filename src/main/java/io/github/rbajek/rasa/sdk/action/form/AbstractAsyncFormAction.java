@@ -0,0 +1,42 @@
+package io.github.rbajek.rasa.sdk.action.form;
+
+import io.github.rbajek.rasa.sdk.CollectingDispatcher;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+import io.github.rbajek.rasa.sdk.util.FutureUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * An abstract form action class, which is submitted asynchronously
+ *
+ * @author Rafał Bajek
+ */
+public abstract class AbstractAsyncFormAction extends AbstractFormAction {
+
+    public AbstractAsyncFormAction(String formName) {
+        super(formName);
+    }
+
+    /**
+     * Define what the form has to do
+     * after all required slots are filled, without blocking the calling thread
+     *
+     * @param dispatcher a {@link CollectingDispatcher} object
+     * @return stage completed with list of events
+     */
+    @Override
+    protected abstract CompletionStage<List<AbstractEvent>> submitAsync(CollectingDispatcher dispatcher);
+
+    /**
+     * Submit the form and wait for the result of {@link #submitAsync(CollectingDispatcher)}. The wait stops
+     * (and the submission is cancelled), when the thread is interrupted on the deadline of the action
+     *
+     * @param dispatcher a {@link CollectingDispatcher} object
+     * @return list of events
+     */
+    @Override
+    protected List<AbstractEvent> submit(CollectingDispatcher dispatcher) {
+        return FutureUtils.await(submitAsync(dispatcher));
+    }
+}
@@ -1,7 +1,9 @@
 package io.github.rbajek.rasa.sdk.action.form;
 
+import io.github.rbajek.rasa.sdk.ActionContext;
 import io.github.rbajek.rasa.sdk.CollectingDispatcher;
-import io.github.rbajek.rasa.sdk.action.Action;
+import io.github.rbajek.rasa.sdk.action.ActionPriority;
+import io.github.rbajek.rasa.sdk.action.AsyncAction;
 import io.github.rbajek.rasa.sdk.action.form.slot.mapper.AbstractSlotMapping;
 import io.github.rbajek.rasa.sdk.action.form.slot.mapper.EntitySlotMapping;
 import io.github.rbajek.rasa.sdk.action.form.slot.mapper.IntentSlotMapping;
@@ -19,13 +21,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * An abstract form action class
  *
  * @author Rafał Bajek
  */
-public abstract class AbstractFormAction implements Action {
+public abstract class AbstractFormAction implements AsyncAction {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractFormAction.class);
 
@@ -446,6 +450,14 @@ public abstract class AbstractFormAction implements Action {
         return this.formName;
     }
 
+    /**
+     * Forms are on the interactive critical path of a conversation, so they have {@link ActionPriority#HIGH} priority
+     */
+    @Override
+    public ActionPriority priority() {
+        return ActionPriority.HIGH;
+    }
+
     /**
      * Execute the side effects of this form.
      *
@@ -460,8 +472,65 @@ public abstract class AbstractFormAction implements Action {
      */
     @Override
     public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+        List<AbstractEvent> events = new ArrayList<>();
+        if(runUntilSubmission(dispatcher, tracker, domain, events)) {
+            completeSubmission(events, submit(dispatcher));
+        }
+        return events;
+    }
+
+    /**
+     * Execute the side effects of this form (see {@link #run(CollectingDispatcher, Tracker, Domain)}).
+     * During a warm-up (see {@link ActionContext#isWarmUp()}) the form is not submitted.
+     */
+    @Override
+    public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain, ActionContext context) {
+        if(context.isWarmUp()) {
+            List<AbstractEvent> events = new ArrayList<>();
+            runUntilSubmission(dispatcher, tracker, domain, events);
+            return events;
+        }
+        return run(dispatcher, tracker, domain);
+    }
+
+    /**
+     * Execute the side effects of this form, the same way as {@link #run(CollectingDispatcher, Tracker, Domain)},
+     * but submit the form using {@link #submitAsync(CollectingDispatcher)}.
+     *
+     * @return stage completed with list of events
+     */
+    @Override
+    public CompletionStage<List<AbstractEvent>> runAsync(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+        List<AbstractEvent> events = new ArrayList<>();
+        if(runUntilSubmission(dispatcher, tracker, domain, events) == false) {
+            return CompletableFuture.completedFuture(events);
+        }
+        return submitAsync(dispatcher).thenApply(submitEvents -> completeSubmission(events, submitEvents));
+    }
+
+    /**
+     * Define what the form has to do after all required slots are filled, without blocking the calling thread.
+     * By default the {@link #submit(CollectingDispatcher)} method is called.
+     *
+     * @param dispatcher a {@link CollectingDispatcher} object
+     * @return stage completed with list of events
+     */
+    protected CompletionStage<List<AbstractEvent>> submitAsync(CollectingDispatcher dispatcher) {
+        return CompletableFuture.completedFuture(submit(dispatcher));
+    }
+
+    /**
+     * Execute all steps of this form which have to be done before submitting it
+     *
+     * @param dispatcher a {@link CollectingDispatcher} object
+     * @param tracker a {@link Tracker} object
+     * @param domain a {@link Domain} object
+     * @param events list to which the produced events are added
+     * @return <code>true</code> - if the form should be submitted. Otherwise - <code>false</code>
+     */
+    private boolean runUntilSubmission(CollectingDispatcher dispatcher, Tracker tracker, Domain domain, List<AbstractEvent> events) {
         // activate the form
-        List<AbstractEvent> events = activateFormIfRequired(dispatcher, tracker, domain);
+        events.addAll(activateFormIfRequired(dispatcher, tracker, domain));
 
         // validate user input
         events.addAll(validateIfRequired(dispatcher, tracker, domain));
@@ -487,14 +556,18 @@ public abstract class AbstractFormAction implements Action {
                 // there is nothing more to request, so we can submit
                 logFormSlots(tempTracker);
                 LOGGER.debug("Submitting the form '{}'", name());
-                List<AbstractEvent> submitEvents = submit(dispatcher);
-                if(CollectionsUtils.isNotEmpty(submitEvents)) {
-                    events.addAll(submitEvents);
-                }
-                // deactivate the form after submission
-                events.addAll(deactivate());
+                return true;
             }
         }
+        return false;
+    }
+
+    private List<AbstractEvent> completeSubmission(List<AbstractEvent> events, List<AbstractEvent> submitEvents) {
+        if(CollectionsUtils.isNotEmpty(submitEvents)) {
+            events.addAll(submitEvents);
+        }
+        // deactivate the form after submission
+        events.addAll(deactivate());
         return events;
     }
 
@@ -0,0 +1,116 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import io.github.rbajek.rasa.sdk.dto.ActionRequest;
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Codec of the wire format of the action server: decodes requests sent by Rasa and encodes responses.</p>
+ *
+ * <p>Implementations are thread-safe, so one instance should be shared by the whole server.
+ * Streams are neither closed by {@link #decode(InputStream)} nor by {@link #encode(ActionResponse, OutputStream)}.</p>
+ *
+ * @author Rafał Bajek
+ */
+public interface ActionCodec {
+
+    /**
+     * @return the shared JSON codec
+     */
+    static ActionCodec json() {
+        return JsonActionCodec.INSTANCE;
+    }
+
+    /**
+     * @return the shared Smile (binary JSON) codec
+     */
+    static ActionCodec smile() {
+        return SmileActionCodec.INSTANCE;
+    }
+
+    /**
+     * @return the shared CBOR codec
+     */
+    static ActionCodec cbor() {
+        return CborActionCodec.INSTANCE;
+    }
+
+    /**
+     * @return media type of the encoded requests and responses (e.g. <code>application/json</code>)
+     */
+    String getContentType();
+
+    /**
+     * Decode an action request
+     *
+     * @param inputStream a stream with the encoded request (e.g. a body of an HTTP request)
+     * @return the decoded request
+     * @throws io.github.rbajek.rasa.sdk.exception.RasaException if the request cannot be decoded
+     */
+    ActionRequest decode(InputStream inputStream);
+
+    /**
+     * Decode an action request from a (heap or direct) byte buffer, e.g. of a NIO server.
+     * The remaining bytes of the buffer are decoded; its position is not changed.
+     *
+     * @param buffer a buffer with the encoded request
+     * @return the decoded request
+     * @throws io.github.rbajek.rasa.sdk.exception.RasaException if the request cannot be decoded
+     */
+    default ActionRequest decode(ByteBuffer buffer) {
+        return decode(Collections.singletonList(buffer));
+    }
+
+    /**
+     * Decode an action request from a sequence of byte buffers, e.g. chunks of a body of an HTTP request.
+     * The remaining bytes of the buffers are decoded; their positions are not changed.
+     *
+     * @param buffers buffers with the encoded request, in order
+     * @return the decoded request
+     * @throws io.github.rbajek.rasa.sdk.exception.RasaException if the request cannot be decoded
+     */
+    default ActionRequest decode(List<ByteBuffer> buffers) {
+        return decode(new ByteBufferInputStream(buffers));
+    }
+
+    /**
+     * Encode an action response
+     *
+     * @param actionResponse an action response
+     * @param outputStream a stream which the encoded response is written to (e.g. a body of an HTTP response)
+     * @throws io.github.rbajek.rasa.sdk.exception.RasaException if the response cannot be encoded
+     */
+    void encode(ActionResponse actionResponse, OutputStream outputStream);
+
+    /**
+     * Encode an action response into a byte buffer supplied by a caller (e.g. a pooled one).
+     * If the response does not fit, the buffer is replaced by a larger one of the same kind (heap or direct).
+     *
+     * @param actionResponse an action response
+     * @param buffer a buffer which the encoded response is written to, starting at its position
+     * @return the buffer with the encoded response (the given one or a larger one), positioned after the response
+     * @throws io.github.rbajek.rasa.sdk.exception.RasaException if the response cannot be encoded
+     */
+    default ByteBuffer encode(ActionResponse actionResponse, ByteBuffer buffer) {
+        ByteBufferOutputStream outputStream = new ByteBufferOutputStream(buffer);
+        encode(actionResponse, outputStream);
+        return outputStream.getBuffer();
+    }
+
+    /**
+     * Open a writer, which encodes a response part by part while an action runs, so the events are written as they are produced.
+     * By default the events are collected and the whole response is encoded when it is finished.
+     *
+     * @param outputStream a stream which the encoded response is written to (e.g. a body of an HTTP response)
+     * @return a writer of one response
+     * @throws io.github.rbajek.rasa.sdk.exception.RasaException if the writer cannot be opened
+     */
+    default ActionResponseWriter newResponseWriter(OutputStream outputStream) {
+        return new BufferedResponseWriter(this, outputStream);
+    }
+}
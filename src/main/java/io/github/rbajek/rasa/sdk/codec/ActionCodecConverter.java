@@ -0,0 +1,57 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * <p>Command line tool, which converts captured JSON requests (or responses) to a binary format, e.g. to benchmark
+ * the binary codecs with real traffic:</p>
+ *
+ * <pre>
+ * java -cp rasa-java-sdk.jar:... io.github.rbajek.rasa.sdk.codec.ActionCodecConverter smile request1.json request2.json
+ * </pre>
+ *
+ * <p>Every file is converted to a file with the extension of the format (<code>smile</code> or <code>cbor</code>)
+ * next to it.</p>
+ *
+ * @author Rafał Bajek
+ */
+public final class ActionCodecConverter {
+
+    private ActionCodecConverter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 2) {
+            System.err.println("Usage: ActionCodecConverter <smile|cbor> <json file>...");
+            System.exit(1);
+        }
+        String format = args[0];
+        String contentType;
+        switch (format) {
+            case "smile":
+                contentType = SmileActionCodec.CONTENT_TYPE;
+                break;
+            case "cbor":
+                contentType = CborActionCodec.CONTENT_TYPE;
+                break;
+            default:
+                System.err.println("Unsupported format: " + format);
+                System.exit(1);
+                return;
+        }
+        for (int i = 1; i < args.length; i++) {
+            Path source = Paths.get(args[i]);
+            Path target = source.resolveSibling(source.getFileName() + "." + format);
+            try (InputStream inputStream = Files.newInputStream(source);
+                 OutputStream outputStream = Files.newOutputStream(target)) {
+                ActionCodecs.defaults().convert(inputStream, JsonActionCodec.CONTENT_TYPE, outputStream, contentType);
+            }
+            System.out.println(source + " (" + Files.size(source) + " bytes) -> " + target + " (" + Files.size(target) + " bytes)");
+        }
+    }
+}
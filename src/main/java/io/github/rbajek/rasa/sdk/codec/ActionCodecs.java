@@ -0,0 +1,148 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * <p>Content negotiation between the codecs supported by an action server.</p>
+ *
+ * <p>A request is decoded by the codec of its <code>Content-Type</code> header, and a response is encoded by the most
+ * preferred codec of the <code>Accept</code> header. Requests without these headers (e.g. sent by Rasa) use
+ * the default codec, which is the first one.</p>
+ *
+ * @author Rafał Bajek
+ */
+public class ActionCodecs {
+
+    private static final ActionCodecs DEFAULTS = new ActionCodecs(Arrays.asList(ActionCodec.json(), ActionCodec.smile(), ActionCodec.cbor()));
+
+    private final ActionCodec defaultCodec;
+    private final Map<String, ActionCodec> codecs = new LinkedHashMap<>();
+
+    /**
+     * @param codecs supported codecs. The first one is the default
+     */
+    public ActionCodecs(List<ActionCodec> codecs) {
+        if(codecs == null || codecs.isEmpty()) {
+            throw new RasaException("At least one codec must be provided");
+        }
+        this.defaultCodec = codecs.get(0);
+        codecs.forEach(codec -> this.codecs.put(codec.getContentType(), codec));
+    }
+
+    /**
+     * @return JSON (the default), Smile and CBOR codecs
+     */
+    public static ActionCodecs defaults() {
+        return DEFAULTS;
+    }
+
+    //=================================================
+    // Class methods
+    //=================================================
+
+    /**
+     * @param contentType a value of the <code>Content-Type</code> header of a request (may be <code>null</code>)
+     * @return codec of the request
+     * @throws RasaException if the content type is not supported
+     */
+    public ActionCodec forContentType(String contentType) {
+        if(contentType == null || contentType.trim().isEmpty()) {
+            return this.defaultCodec;
+        }
+        ActionCodec codec = this.codecs.get(mediaType(contentType));
+        if(codec == null) {
+            throw new RasaException("Unsupported content type: " + contentType);
+        }
+        return codec;
+    }
+
+    /**
+     * @param accept a value of the <code>Accept</code> header of a request (may be <code>null</code>)
+     * @return codec of the response: the acceptable one with the highest quality, or the default one
+     *         if none of the acceptable media types is supported
+     */
+    public ActionCodec forAccept(String accept) {
+        if(accept == null || accept.trim().isEmpty()) {
+            return this.defaultCodec;
+        }
+        ActionCodec bestCodec = null;
+        double bestQuality = 0;
+        for (String range : accept.split(",")) {
+            String mediaType = mediaType(range);
+            ActionCodec codec = mediaType.equals("*/*") || mediaType.equals("application/*") ? this.defaultCodec : this.codecs.get(mediaType);
+            double quality = quality(range);
+            if(codec != null && quality > bestQuality) {
+                bestCodec = codec;
+                bestQuality = quality;
+            }
+        }
+        return bestCodec != null ? bestCodec : this.defaultCodec;
+    }
+
+    /**
+     * @return immutable collection of the supported codecs
+     */
+    public Map<String, ActionCodec> getCodecs() {
+        return Collections.unmodifiableMap(this.codecs);
+    }
+
+    /**
+     * Convert an encoded request or response between the data formats of two codecs, e.g. a captured JSON request
+     * to Smile. Values are copied token by token, so nothing is lost nor bound to the DTOs.
+     *
+     * @param inputStream a stream with the encoded value
+     * @param sourceContentType a media type of the value
+     * @param outputStream a stream which the converted value is written to
+     * @param targetContentType a media type of the converted value
+     */
+    public void convert(InputStream inputStream, String sourceContentType, OutputStream outputStream, String targetContentType) {
+        JsonActionCodec source = jacksonCodec(sourceContentType);
+        JsonActionCodec target = jacksonCodec(targetContentType);
+        try (JsonParser parser = source.getFactory().createParser(inputStream);
+             JsonGenerator generator = target.getFactory().createGenerator(outputStream)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        } catch (IOException e) {
+            throw new RasaException(e);
+        }
+    }
+
+    private JsonActionCodec jacksonCodec(String contentType) {
+        ActionCodec codec = forContentType(contentType);
+        if(codec instanceof JsonActionCodec == false) {
+            throw new RasaException("Conversion is not supported by the codec of " + contentType);
+        }
+        return (JsonActionCodec) codec;
+    }
+
+    private static String mediaType(String range) {
+        int parameters = range.indexOf(';');
+        return (parameters < 0 ? range : range.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static double quality(String range) {
+        for (String parameter : range.split(";")) {
+            String trimmed = parameter.trim();
+            if(trimmed.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(trimmed.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
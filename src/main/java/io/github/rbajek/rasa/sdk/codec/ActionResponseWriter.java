@@ -0,0 +1,63 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+
+import java.io.Closeable;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Writer of an action response, which is encoded part by part while the action runs (see {@link ActionCodec#newResponseWriter(OutputStream)}):
+ * first the events, one by one, and then the messages of the dispatcher.</p>
+ *
+ * <p>A writer is used by one thread. If a response is not finished (e.g. the action has failed after some of its events were written),
+ * the written part is not a valid response and has to be discarded by the caller. The stream is not closed by {@link #close()}.</p>
+ *
+ * @author Rafał Bajek
+ */
+public interface ActionResponseWriter extends Closeable {
+
+    /**
+     * Write the next event of the response
+     *
+     * @param event an event
+     * @throws io.github.rbajek.rasa.sdk.exception.RasaException if the event cannot be encoded, or the response is finished
+     */
+    void writeEvent(AbstractEvent event);
+
+    /**
+     * Write the messages of the dispatcher, which finish the response
+     *
+     * @param responses messages of the dispatcher
+     * @throws io.github.rbajek.rasa.sdk.exception.RasaException if the messages cannot be encoded, or the response is finished
+     */
+    void finish(List<Map<String, Object>> responses);
+
+    /**
+     * Write a whole response (e.g. a fallback) instead of its parts
+     *
+     * @param actionResponse an action response
+     * @throws io.github.rbajek.rasa.sdk.exception.RasaException if the response cannot be encoded, or its parts were already written
+     */
+    void writeResponse(ActionResponse actionResponse);
+
+    /**
+     * @return <code>true</code> - if any part of the response was written to the stream. Otherwise - <code>false</code>
+     */
+    boolean isStarted();
+
+    /**
+     * @return <code>true</code> - if the whole response was written. Otherwise - <code>false</code>
+     */
+    boolean isFinished();
+
+    /**
+     * Flush the written part of the response. An unfinished response is not completed
+     *
+     * @throws io.github.rbajek.rasa.sdk.exception.RasaException if the response cannot be flushed
+     */
+    @Override
+    void close();
+}
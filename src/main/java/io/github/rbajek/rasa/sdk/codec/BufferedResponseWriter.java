@@ -0,0 +1,78 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writer of codecs, which cannot encode a response part by part: the events are collected,
+ * and the whole response is encoded when it is finished
+ *
+ * @author Rafał Bajek
+ */
+class BufferedResponseWriter implements ActionResponseWriter {
+
+    private final ActionCodec codec;
+    private final OutputStream outputStream;
+    private List<AbstractEvent> events;
+    private boolean finished;
+
+    BufferedResponseWriter(ActionCodec codec, OutputStream outputStream) {
+        this.codec = codec;
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public void writeEvent(AbstractEvent event) {
+        checkNotFinished();
+        if(this.events == null) {
+            this.events = new ArrayList<>();
+        }
+        this.events.add(event);
+    }
+
+    @Override
+    public void finish(List<Map<String, Object>> responses) {
+        checkNotFinished();
+        ActionResponse actionResponse = new ActionResponse();
+        actionResponse.setEvents(this.events != null ? this.events : new ArrayList<>());
+        actionResponse.setResponses(responses);
+        this.codec.encode(actionResponse, this.outputStream);
+        this.finished = true;
+    }
+
+    @Override
+    public void writeResponse(ActionResponse actionResponse) {
+        checkNotFinished();
+        // the collected events are not written yet, so they are just dropped
+        this.events = null;
+        this.codec.encode(actionResponse, this.outputStream);
+        this.finished = true;
+    }
+
+    @Override
+    public boolean isStarted() {
+        return this.finished;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return this.finished;
+    }
+
+    @Override
+    public void close() {
+        // nothing is written until the response is finished
+    }
+
+    private void checkNotFinished() {
+        if(this.finished) {
+            throw new RasaException("The response is already finished");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * <p>Input stream over a sequence of (heap or direct) byte buffers, e.g. chunks of a body of an HTTP request.</p>
+ *
+ * <p>Bytes are read straight from the buffers, without copying them up front. Positions of the given buffers
+ * are not changed.</p>
+ *
+ * @author Rafał Bajek
+ */
+final class ByteBufferInputStream extends InputStream {
+
+    private final List<ByteBuffer> buffers;
+    private int index;
+    private ByteBuffer current;
+
+    ByteBufferInputStream(List<ByteBuffer> buffers) {
+        this.buffers = buffers;
+    }
+
+    @Override
+    public int read() {
+        ByteBuffer buffer = nextReadable();
+        return buffer != null ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+        if(length == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = nextReadable();
+        if(buffer == null) {
+            return -1;
+        }
+        int read = Math.min(length, buffer.remaining());
+        buffer.get(bytes, offset, read);
+        return read;
+    }
+
+    @Override
+    public int available() {
+        return this.current != null ? this.current.remaining() : 0;
+    }
+
+    private ByteBuffer nextReadable() {
+        while (this.current == null || this.current.hasRemaining() == false) {
+            if(this.index == this.buffers.size()) {
+                return null;
+            }
+            this.current = this.buffers.get(this.index++).duplicate();
+        }
+        return this.current;
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Output stream, which writes straight to a byte buffer supplied by a caller.</p>
+ *
+ * <p>When the buffer is full, it is replaced by a buffer of the same kind (heap or direct) and of at least twice
+ * the capacity, so the final buffer has to be taken by {@link #getBuffer()}.</p>
+ *
+ * @author Rafał Bajek
+ */
+final class ByteBufferOutputStream extends OutputStream {
+
+    private ByteBuffer buffer;
+
+    ByteBufferOutputStream(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public void write(int b) {
+        ensureRemaining(1);
+        this.buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        ensureRemaining(length);
+        this.buffer.put(bytes, offset, length);
+    }
+
+    private void ensureRemaining(int length) {
+        if(this.buffer.remaining() >= length) {
+            return;
+        }
+        int capacity = Math.max(this.buffer.capacity() * 2, this.buffer.position() + length);
+        ByteBuffer grown = this.buffer.isDirect() ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+        // through Buffer, so the code compiled by a newer JDK still runs on Java 8
+        ((Buffer) this.buffer).flip();
+        grown.put(this.buffer);
+        this.buffer = grown;
+    }
+
+    /**
+     * @return the buffer with the written bytes, positioned after them
+     */
+    ByteBuffer getBuffer() {
+        return this.buffer;
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/**
+ * <p>CBOR (RFC 7049) codec: the data model of {@link JsonActionCodec} in the Concise Binary Object Representation.</p>
+ *
+ * <p>Rasa itself speaks JSON only, so this codec is meant for internal hops between services
+ * (e.g. a gateway and action servers), where it saves parsing and generating text.</p>
+ *
+ * @author Rafał Bajek
+ */
+public class CborActionCodec extends JsonActionCodec {
+
+    public static final String CONTENT_TYPE = "application/cbor";
+
+    static final CborActionCodec INSTANCE = new CborActionCodec();
+
+    /**
+     * Create a codec with the shared bindings (see {@link JsonBindings#shared()})
+     */
+    public CborActionCodec() {
+        this(JsonBindings.shared());
+    }
+
+    /**
+     * @param bindings data binding used by the codec
+     */
+    public CborActionCodec(JsonBindings bindings) {
+        super(builder().bindings(bindings), new CBORFactory(), CONTENT_TYPE);
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.github.rbajek.rasa.sdk.dto.Domain;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>Cache of decoded domains, keyed by a hash of their raw JSON.</p>
+ *
+ * <p>Rasa sends the same domain with every request, so binding it once per change of the domain is enough.
+ * A hit is confirmed by comparing the raw bytes, so a hash collision never returns a wrong domain.
+ * Only a few latest domains are kept (e.g. while a new version of a bot is being rolled out).</p>
+ *
+ * <p>A cached domain is shared by requests, so it is returned as a read-only view (see {@link ReadOnlyDomain}).</p>
+ *
+ * @author Rafał Bajek
+ */
+final class DomainCache {
+
+    private static final int MAX_ENTRIES = 4;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final ObjectReader domainReader;
+    private final SymbolTable symbols;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param domainReader reader of domains
+     * @param symbols table of symbols, which is seeded with names from every new domain (may be <code>null</code>)
+     */
+    DomainCache(ObjectReader domainReader, SymbolTable symbols) {
+        this.domainReader = domainReader;
+        this.symbols = symbols;
+    }
+
+    /**
+     * Find the domain with the given raw JSON, or decode and cache it
+     *
+     * @param source raw request
+     * @param offset offset of the domain in the raw request
+     * @param length length of the domain in the raw request
+     * @return the shared, read-only domain
+     */
+    Domain get(byte[] source, int offset, int length) throws IOException {
+        long hash = hash(source, offset, length);
+        Entry entry = this.entries.get(hash);
+        if(entry != null && entry.matches(source, offset, length)) {
+            return entry.domain;
+        }
+        Domain domain = this.domainReader.readValue(source, offset, length);
+        if(this.symbols != null) {
+            this.symbols.addDomain(domain);
+        }
+        if(this.entries.size() >= MAX_ENTRIES) {
+            this.entries.clear();
+        }
+        Domain sharedDomain = new ReadOnlyDomain(domain);
+        this.entries.put(hash, new Entry(copyOf(source, offset, length), sharedDomain));
+        return sharedDomain;
+    }
+
+    int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * @return FNV-1a hash of the raw JSON
+     */
+    static long hash(byte[] source, int offset, int length) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hash ^= source[i];
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static byte[] copyOf(byte[] source, int offset, int length) {
+        byte[] copy = new byte[length];
+        System.arraycopy(source, offset, copy, 0, length);
+        return copy;
+    }
+
+    //=================================================
+    // Inner Types
+    //=================================================
+
+    private static final class Entry {
+        private final byte[] raw;
+        private final Domain domain;
+
+        private Entry(byte[] raw, Domain domain) {
+            this.raw = raw;
+            this.domain = domain;
+        }
+
+        private boolean matches(byte[] source, int offset, int length) {
+            if(this.raw.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if(this.raw[i] != source[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
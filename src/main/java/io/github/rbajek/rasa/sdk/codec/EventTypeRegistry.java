@@ -0,0 +1,95 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import io.github.rbajek.rasa.sdk.dto.event.*;
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>Registry of types of tracker events, keyed by the <code>event</code> discriminator sent by Rasa.</p>
+ *
+ * <p>The events modelled by the SDK (see {@link io.github.rbajek.rasa.sdk.dto.event}) are resolved by a switch
+ * on the discriminator. Custom events can be added by {@link #register(String, Class)}. The events are bound
+ * by the readers of {@link JsonBindings#readerFor(Class)}.</p>
+ *
+ * @author Rafał Bajek
+ */
+public class EventTypeRegistry {
+
+    private final Map<String, Class<? extends AbstractEvent>> customTypes = new ConcurrentHashMap<>();
+
+    /**
+     * Register a custom type of events, or replace a built-in one
+     *
+     * @param discriminator a value of the <code>event</code> property
+     * @param type a type of the events. Its fields are bound by name, so it needs a (possibly private) no-arg constructor
+     */
+    public void register(String discriminator, Class<? extends AbstractEvent> type) {
+        if(discriminator == null || type == null) {
+            throw new RasaException("A discriminator and a type of the event must be provided");
+        }
+        this.customTypes.put(discriminator, type);
+    }
+
+    /**
+     * @param type a type of events
+     * @return <code>true</code> - if the type is registered as a custom one. Otherwise - <code>false</code>
+     */
+    boolean isRegistered(Class<?> type) {
+        return this.customTypes.containsValue(type);
+    }
+
+    /**
+     * @param discriminator a value of the <code>event</code> property
+     * @return type of the events, or <code>null</code> if the type is unknown
+     */
+    public Class<? extends AbstractEvent> typeOf(String discriminator) {
+        if(this.customTypes.isEmpty() == false) {
+            Class<? extends AbstractEvent> customType = this.customTypes.get(discriminator);
+            if(customType != null) {
+                return customType;
+            }
+        }
+        switch (discriminator) {
+            case "user":
+                return UserUttered.class;
+            case "bot":
+                return BotUttered.class;
+            case "action":
+                return ActionExecuted.class;
+            case "slot":
+                return SlotSet.class;
+            case "form":
+                return Form.class;
+            case "form_validation":
+                return FormValidation.class;
+            case "action_execution_rejected":
+                return ActionExecutionRejected.class;
+            case "followup":
+                return FollowupAction.class;
+            case "reset_slots":
+                return AllSlotsReset.class;
+            case "restart":
+                return Restarted.class;
+            case "undo":
+                return ActionReverted.class;
+            case "rewind":
+                return UserUtteranceReverted.class;
+            case "reminder":
+                return ReminderScheduled.class;
+            case "cancel_reminder":
+                return ReminderCancelled.class;
+            case "pause":
+                return ConversationPaused.class;
+            case "resume":
+                return ConversationResumed.class;
+            case "agent":
+                return AgentUttered.class;
+            case "export":
+                return StoryExported.class;
+            default:
+                return null;
+        }
+    }
+}
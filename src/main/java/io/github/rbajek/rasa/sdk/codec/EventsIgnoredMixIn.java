@@ -0,0 +1,18 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+
+import java.util.List;
+
+/**
+ * Mix-in of {@link Tracker}, which leaves out its events, so they can be copied without encoding them
+ * (see {@link JsonBindings#copy(Object)})
+ *
+ * @author Rafał Bajek
+ */
+abstract class EventsIgnoredMixIn {
+
+    @JsonIgnore
+    private List<Tracker.Event> events;
+}
@@ -0,0 +1,476 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.github.rbajek.rasa.sdk.dto.ActionRequest;
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+import io.github.rbajek.rasa.sdk.dto.Domain;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>JSON codec, which reads and writes the top level of requests and responses directly with Jackson's
+ * {@link JsonParser} and {@link JsonGenerator}, so no intermediate tree nor <code>String</code> is created.</p>
+ *
+ * <p>Nested objects (the tracker, the domain, events) are bound by {@link ObjectReader}s and {@link ObjectWriter}s
+ * created once from the {@link JsonBindings}. Parsers and generators use the buffers recycled by the {@link JsonFactory}.
+ * Unknown properties of requests (e.g. added by newer versions of Rasa) are ignored.</p>
+ *
+ * <p>Events of the tracker are decoded also into their own types (see {@link Tracker.Event#getTypedEvent()}).
+ * In the lazy mode (see {@link Builder#lazyEvents(boolean)}) they are not decoded up front.</p>
+ *
+ * <p>With the domain cache (see {@link Builder#cacheDomain(boolean)}) the domain is bound only when its raw JSON
+ * changes; otherwise the previously decoded instance is reused.</p>
+ *
+ * <p>With a symbol table (see {@link Builder#symbols(SymbolTable)}) known names (e.g. of intents, slots or actions)
+ * are decoded into their canonical instances. The table is seeded with names from the decoded domains.</p>
+ *
+ * @author Rafał Bajek
+ */
+public class JsonActionCodec implements ActionCodec {
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    static final JsonActionCodec INSTANCE = new JsonActionCodec();
+
+    private static final String NEXT_ACTION = "next_action";
+    private static final String SENDER_ID = "sender_id";
+    private static final String TRACKER = "tracker";
+    private static final String DOMAIN = "domain";
+    private static final String VERSION = "version";
+    private static final String EVENTS = "events";
+    private static final String RESPONSES = "responses";
+
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final String contentType;
+    private final JsonFactory jsonFactory;
+    private final ObjectReader trackerReader;
+    private final ObjectReader domainReader;
+    private final ObjectWriter valueWriter;
+    private final boolean lazyEvents;
+    private final DomainCache domainCache;
+    private final SymbolTable symbols;
+
+    /**
+     * Hash of the raw domain, which has seeded the symbol table last (used without the domain cache)
+     */
+    private volatile long seededDomainHash;
+
+    /**
+     * Create a codec with the default options (see {@link Builder})
+     */
+    public JsonActionCodec() {
+        this(builder(), new JsonFactory(), CONTENT_TYPE);
+    }
+
+    /**
+     * @param builder options of the codec
+     * @param jsonFactory a factory of parsers and generators of the data format. A binary format can use neither
+     *                    lazy events, the domain cache nor a symbol table, because its values may refer to the preceding ones
+     * @param contentType a media type of the data format
+     */
+    protected JsonActionCodec(Builder builder, JsonFactory jsonFactory, String contentType) {
+        this.contentType = contentType;
+        this.lazyEvents = builder.lazyEvents;
+        // the mapper of the bindings already ignores unknown properties and flushes once, when the whole response is written
+        ObjectMapper objectMapper = builder.bindings.newObjectMapper(jsonFactory);
+        EventTypeRegistry eventTypes = builder.eventTypes != null ? builder.eventTypes : builder.bindings.getEventTypes();
+        objectMapper.registerModule(new SimpleModule().addDeserializer(Tracker.Event.class, new TrackerEventDeserializer(eventTypes, builder.bindings)));
+        if(this.lazyEvents) {
+            objectMapper.addMixIn(Tracker.class, LazyEventsMixIn.class);
+        }
+        this.symbols = builder.symbols;
+        if(this.symbols != null) {
+            objectMapper.registerModule(new SimpleModule().addDeserializer(String.class, new SymbolStringDeserializer(this.symbols)));
+        }
+        this.jsonFactory = objectMapper.getFactory()
+                .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.trackerReader = objectMapper.readerFor(Tracker.class)
+                .withAttribute(LazyEventsDeserializer.EVENT_READER_ATTRIBUTE, objectMapper.readerFor(Tracker.Event.class));
+        this.domainReader = objectMapper.readerFor(Domain.class);
+        this.domainCache = builder.cacheDomain ? new DomainCache(this.domainReader, this.symbols) : null;
+        this.valueWriter = objectMapper.writer();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    //=================================================
+    // Class methods
+    //=================================================
+
+    @Override
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    JsonFactory getFactory() {
+        return this.jsonFactory;
+    }
+
+    @Override
+    public ActionRequest decode(InputStream inputStream) {
+        if(this.lazyEvents || this.domainCache != null || this.symbols != null) {
+            return decodeBuffered(inputStream);
+        }
+        try (JsonParser parser = this.jsonFactory.createParser(inputStream)) {
+            return readRequest(parser, this.trackerReader, null);
+        } catch (IOException e) {
+            throw new RasaException(e);
+        }
+    }
+
+    private ActionRequest decodeBuffered(InputStream inputStream) {
+        try {
+            // lazy events keep the raw request, so they can be decoded later, and the domain cache
+            // (as well as seeding of the symbol table) compares raw domains
+            byte[] source = readFully(inputStream);
+            ObjectReader trackerReader = this.lazyEvents
+                    ? this.trackerReader.withAttribute(LazyEventsDeserializer.SOURCE_ATTRIBUTE, source)
+                    : this.trackerReader;
+            try (JsonParser parser = this.jsonFactory.createParser(source)) {
+                return readRequest(parser, trackerReader, source);
+            }
+        } catch (IOException e) {
+            throw new RasaException(e);
+        }
+    }
+
+    /**
+     * A heap buffer is parsed in place. A direct buffer is read through the input buffer of the parser.
+     * Lazy events, the domain cache and the symbol table copy the request out of the buffer, because they keep it
+     * (and the caller may reuse the buffer).
+     */
+    @Override
+    public ActionRequest decode(ByteBuffer buffer) {
+        if(buffer.hasArray() == false || this.lazyEvents || this.domainCache != null || this.symbols != null) {
+            return ActionCodec.super.decode(buffer);
+        }
+        try (JsonParser parser = this.jsonFactory.createParser(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining())) {
+            return readRequest(parser, this.trackerReader, null);
+        } catch (IOException e) {
+            throw new RasaException(e);
+        }
+    }
+
+    private static byte[] readFully(InputStream inputStream) throws IOException {
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        int length = 0;
+        int read;
+        while ((read = inputStream.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+            if(length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+        return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+    }
+
+    @Override
+    public void encode(ActionResponse actionResponse, OutputStream outputStream) {
+        try (JsonGenerator generator = this.jsonFactory.createGenerator(outputStream)) {
+            writeResponse(actionResponse, generator);
+        } catch (IOException e) {
+            throw new RasaException(e);
+        }
+    }
+
+    /**
+     * The events are written straight to the generator. It flushes its buffer to the stream whenever the buffer is full
+     */
+    @Override
+    public ActionResponseWriter newResponseWriter(OutputStream outputStream) {
+        try {
+            JsonGenerator generator = this.jsonFactory.createGenerator(outputStream);
+            // an unfinished response must not be completed when the generator is closed
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            return new GeneratorResponseWriter(generator);
+        } catch (IOException e) {
+            throw new RasaException(e);
+        }
+    }
+
+    /**
+     * @param source the raw request, which is parsed, or <code>null</code> if it is parsed from a stream
+     */
+    private ActionRequest readRequest(JsonParser parser, ObjectReader trackerReader, byte[] source) throws IOException {
+        if(parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new RasaException("An action request must be a JSON object");
+        }
+        ActionRequest actionRequest = new ActionRequest();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (fieldName) {
+                case NEXT_ACTION:
+                    actionRequest.setNextAction(value == JsonToken.VALUE_STRING && this.symbols != null
+                            ? SymbolStringDeserializer.readSymbol(parser, this.symbols)
+                            : readScalar(parser, fieldName));
+                    break;
+                case SENDER_ID:
+                    actionRequest.setSenderId(readScalar(parser, fieldName));
+                    break;
+                case VERSION:
+                    actionRequest.setVersion(readScalar(parser, fieldName));
+                    break;
+                case TRACKER:
+                    actionRequest.setTracker(value == JsonToken.VALUE_NULL ? null : trackerReader.readValue(parser));
+                    break;
+                case DOMAIN:
+                    actionRequest.setDomain(value == JsonToken.VALUE_NULL ? null : readDomain(parser, source));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return actionRequest;
+    }
+
+    /**
+     * @return the current scalar value as a string
+     * @throws RasaException if the value is an object or an array, which would leave the parser inside of it
+     */
+    private static String readScalar(JsonParser parser, String fieldName) throws IOException {
+        if(parser.currentToken().isStructStart()) {
+            throw new RasaException("Property '" + fieldName + "' of an action request must be a string");
+        }
+        return parser.getValueAsString();
+    }
+
+    private Domain readDomain(JsonParser parser, byte[] source) throws IOException {
+        if(source == null || (this.domainCache == null && this.symbols == null)) {
+            return this.domainReader.readValue(parser);
+        }
+        int start = (int) parser.getTokenLocation().getByteOffset();
+        parser.skipChildren();
+        int end = (int) parser.getCurrentLocation().getByteOffset();
+        if(this.domainCache != null) {
+            return this.domainCache.get(source, start, end - start);
+        }
+        Domain domain = this.domainReader.readValue(source, start, end - start);
+        // the symbol table is seeded only when the domain changes, not with every request
+        long hash = DomainCache.hash(source, start, end - start);
+        if(hash != this.seededDomainHash) {
+            this.symbols.addDomain(domain);
+            this.seededDomainHash = hash;
+        }
+        return domain;
+    }
+
+    int getCachedDomains() {
+        return this.domainCache != null ? this.domainCache.size() : 0;
+    }
+
+    private void writeResponse(ActionResponse actionResponse, JsonGenerator generator) throws IOException {
+        if(actionResponse == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeFieldName(EVENTS);
+        writeEvents(actionResponse.getEvents(), generator);
+        generator.writeFieldName(RESPONSES);
+        writeResponses(actionResponse.getResponses(), generator);
+        generator.writeEndObject();
+    }
+
+    private void writeEvents(List<AbstractEvent> events, JsonGenerator generator) throws IOException {
+        if(events == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartArray();
+        for (AbstractEvent event : events) {
+            this.valueWriter.writeValue(generator, event);
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeResponses(List<Map<String, Object>> responses, JsonGenerator generator) throws IOException {
+        if(responses == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartArray();
+        for (Map<String, Object> response : responses) {
+            this.valueWriter.writeValue(generator, response);
+        }
+        generator.writeEndArray();
+    }
+
+    //=================================================
+    // Response writer
+    //=================================================
+
+    private final class GeneratorResponseWriter implements ActionResponseWriter {
+
+        private final JsonGenerator generator;
+        private boolean started;
+        private boolean finished;
+
+        private GeneratorResponseWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public void writeEvent(AbstractEvent event) {
+            checkNotFinished();
+            try {
+                startEvents();
+                valueWriter.writeValue(this.generator, event);
+            } catch (IOException e) {
+                throw new RasaException(e);
+            }
+        }
+
+        @Override
+        public void finish(List<Map<String, Object>> responses) {
+            checkNotFinished();
+            try {
+                startEvents();
+                this.generator.writeEndArray();
+                this.generator.writeFieldName(RESPONSES);
+                writeResponses(responses, this.generator);
+                this.generator.writeEndObject();
+            } catch (IOException e) {
+                throw new RasaException(e);
+            }
+            this.finished = true;
+        }
+
+        @Override
+        public void writeResponse(ActionResponse actionResponse) {
+            if(this.started) {
+                throw new RasaException("Parts of the response were already written");
+            }
+            try {
+                JsonActionCodec.this.writeResponse(actionResponse, this.generator);
+            } catch (IOException e) {
+                throw new RasaException(e);
+            }
+            this.started = true;
+            this.finished = true;
+        }
+
+        @Override
+        public boolean isStarted() {
+            return this.started;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return this.finished;
+        }
+
+        @Override
+        public void close() {
+            try {
+                this.generator.close();
+            } catch (IOException e) {
+                throw new RasaException(e);
+            }
+        }
+
+        private void startEvents() throws IOException {
+            if(this.started == false) {
+                this.generator.writeStartObject();
+                this.generator.writeFieldName(EVENTS);
+                this.generator.writeStartArray();
+                this.started = true;
+            }
+        }
+
+        private void checkNotFinished() {
+            if(this.finished) {
+                throw new RasaException("The response is already finished");
+            }
+        }
+    }
+
+    //=================================================
+    // Builder
+    //=================================================
+
+    public static class Builder {
+        private boolean lazyEvents;
+        private boolean cacheDomain;
+        private SymbolTable symbols;
+        private JsonBindings bindings = JsonBindings.shared();
+        private EventTypeRegistry eventTypes;
+
+        /**
+         * @param lazyEvents whether events of the tracker are decoded lazily. The raw request is then kept in memory
+         *                   as long as the tracker, and an event is decoded on first access to it
+         *                   (e.g. <code>tracker.getEvents().get(index)</code> or {@link Tracker#newestEventsFirst()})
+         * @return this builder
+         */
+        public Builder lazyEvents(boolean lazyEvents) {
+            this.lazyEvents = lazyEvents;
+            return this;
+        }
+
+        /**
+         * @param cacheDomain whether a decoded domain is reused by the next requests with the same raw domain.
+         *                    The raw domain is then skipped and compared with the cached ones instead of being bound.
+         *                    The cached domain is shared by requests, so it is read-only: its setters throw
+         *                    {@link UnsupportedOperationException} and its collections are unmodifiable
+         * @return this builder
+         */
+        public Builder cacheDomain(boolean cacheDomain) {
+            this.cacheDomain = cacheDomain;
+            return this;
+        }
+
+        /**
+         * @param symbols table of canonical instances of names, which is shared with other codecs
+         *                and seeded e.g. with names of the registered actions
+         * @return this builder
+         */
+        public Builder symbols(SymbolTable symbols) {
+            this.symbols = symbols;
+            return this;
+        }
+
+        /**
+         * @param bindings data binding used by the codec, e.g. with bytecode-generated accessors.
+         *                 By default - {@link JsonBindings#shared()}
+         * @return this builder
+         */
+        public Builder bindings(JsonBindings bindings) {
+            this.bindings = bindings;
+            return this;
+        }
+
+        /**
+         * @param eventTypes registry of types of tracker events, e.g. with custom events.
+         *                   By default - the registry of the bindings
+         * @return this builder
+         */
+        public Builder eventTypes(EventTypeRegistry eventTypes) {
+            this.eventTypes = eventTypes;
+            return this;
+        }
+
+        public JsonActionCodec build() {
+            return new JsonActionCodec(this, new JsonFactory(), CONTENT_TYPE);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.rbajek.rasa.sdk.dto.ActionRequest;
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+import io.github.rbajek.rasa.sdk.dto.Domain;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+import io.github.rbajek.rasa.sdk.dto.event.*;
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>Central JSON data binding of the SDK: one tuned {@link ObjectMapper} with {@link ObjectReader}s and
+ * {@link ObjectWriter}s created once per type and shared by all threads. Readers and writers are cached for the DTOs of the SDK
+ * and for the registered event types (see {@link EventTypeRegistry}); for other types they are created on every call.</p>
+ *
+ * <p>Readers and writers of {@link ActionRequest}, {@link ActionResponse}, {@link Tracker}, {@link Domain} and of all
+ * events are created up front, so the first request does not pay for introspection of the DTOs. Parsers and
+ * generators reuse their buffers through the per-thread buffer recycling of the {@link JsonFactory}.</p>
+ *
+ * <p>Tracker events are decoded into their own types only by {@link JsonActionCodec}, so {@link #read(byte[], Class)}
+ * binds only the <code>event</code> and the <code>timestamp</code> of {@link Tracker.Event}.</p>
+ *
+ * <p>Optionally (see {@link Builder#bytecodeAccessors(boolean)}) properties are accessed by generated bytecode instead
+ * of reflection. It requires the Afterburner module of Jackson (<code>com.fasterxml.jackson.module:jackson-module-afterburner</code>
+ * in the version of Jackson used by the SDK) on the classpath.</p>
+ *
+ * @author Rafał Bajek
+ */
+public final class JsonBindings {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonBindings.class);
+
+    private static final String BYTECODE_ACCESSORS_MODULE = "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
+
+    private static final String DTO_PACKAGE = ActionRequest.class.getPackage().getName() + ".";
+
+    private static final List<Class<?>> PRELOADED_TYPES = Arrays.asList(
+            ActionRequest.class, ActionResponse.class, Tracker.class, Domain.class,
+            UserUttered.class, BotUttered.class, ActionExecuted.class, SlotSet.class, Form.class, FormValidation.class,
+            ActionExecutionRejected.class, FollowupAction.class, AllSlotsReset.class, Restarted.class, ActionReverted.class,
+            UserUtteranceReverted.class, ReminderScheduled.class, ReminderCancelled.class, ConversationPaused.class,
+            ConversationResumed.class, AgentUttered.class, StoryExported.class);
+
+    private static final JsonBindings SHARED = builder().build();
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper eventMapper;
+    private final ObjectMapper copyMapper;
+    private final ObjectWriter trackerWithoutEventsWriter;
+    private final Module accessorsModule;
+    private final EventTypeRegistry eventTypes;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    private JsonBindings(Builder builder) {
+        this.eventTypes = builder.eventTypes;
+        this.accessorsModule = builder.bytecodeAccessors ? bytecodeAccessorsModule() : null;
+        this.objectMapper = newObjectMapper(new JsonFactory());
+        // a copy is as strict as a copy made by a plain ObjectMapper
+        this.copyMapper = newObjectMapper(new JsonFactory())
+                .enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        // events are bound through their fields, because most of them do not have setters
+        this.eventMapper = newObjectMapper(new JsonFactory())
+                .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                .addMixIn(ReminderScheduled.class, ReminderScheduledMixIn.class);
+        this.trackerWithoutEventsWriter = newObjectMapper(new JsonFactory())
+                .addMixIn(Tracker.class, EventsIgnoredMixIn.class)
+                .writerFor(Tracker.class);
+        PRELOADED_TYPES.forEach(type -> {
+            readerFor(type);
+            writerFor(type);
+        });
+    }
+
+    /**
+     * @return the bindings shared by the SDK (with the default options)
+     */
+    public static JsonBindings shared() {
+        return SHARED;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static Module bytecodeAccessorsModule() {
+        try {
+            Module module = (Module) Class.forName(BYTECODE_ACCESSORS_MODULE).getDeclaredConstructor().newInstance();
+            LOGGER.debug("Properties are accessed by bytecode generated by {}", BYTECODE_ACCESSORS_MODULE);
+            return module;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new RasaException("Bytecode-generated accessors require " + BYTECODE_ACCESSORS_MODULE + " on the classpath");
+        }
+    }
+
+    //=================================================
+    // Class methods
+    //=================================================
+
+    /**
+     * @param type a type of values
+     * @return the shared reader of the values. Readers of events (see {@link AbstractEvent}) bind their fields
+     */
+    public ObjectReader readerFor(Class<?> type) {
+        ObjectReader reader = this.readers.get(type);
+        if(reader != null) {
+            return reader;
+        }
+        ObjectMapper mapper = AbstractEvent.class.isAssignableFrom(type) ? this.eventMapper : this.objectMapper;
+        return isCached(type) ? this.readers.computeIfAbsent(type, mapper::readerFor) : mapper.readerFor(type);
+    }
+
+    /**
+     * @param type a type of values
+     * @return the shared writer of the values
+     */
+    public ObjectWriter writerFor(Class<?> type) {
+        ObjectWriter writer = this.writers.get(type);
+        if(writer != null) {
+            return writer;
+        }
+        return isCached(type) ? this.writers.computeIfAbsent(type, this.objectMapper::writerFor) : this.objectMapper.writerFor(type);
+    }
+
+    /**
+     * The caches are bounded by the known types, because {@link #write(Object)} looks up the runtime class of any value
+     * (e.g. of an anonymous event)
+     */
+    private boolean isCached(Class<?> type) {
+        return type.getName().startsWith(DTO_PACKAGE)
+                || (AbstractEvent.class.isAssignableFrom(type) && this.eventTypes.isRegistered(type));
+    }
+
+    /**
+     * Deserialize a value from JSON
+     *
+     * @param json UTF-8 encoded JSON
+     * @param type a type of the value
+     * @param <T> type of the value
+     * @return the deserialized value
+     */
+    public <T> T read(byte[] json, Class<T> type) {
+        try {
+            return readerFor(type).readValue(json);
+        } catch (IOException e) {
+            throw new RasaException(e);
+        }
+    }
+
+    /**
+     * Serialize a value to JSON
+     *
+     * @param value a value which should be serialized
+     * @return UTF-8 encoded JSON
+     */
+    public byte[] write(Object value) {
+        try {
+            return value == null ? this.objectMapper.writeValueAsBytes(null) : writerFor(value.getClass()).writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new RasaException(e);
+        }
+    }
+
+    /**
+     * Deep copy of a value through JSON. Unknown properties fail the copy (as with a plain {@link ObjectMapper}).
+     * Events of a tracker are copied without encoding them: the copies keep
+     * their (immutable) typed events, and lazily decoded events (see {@link JsonActionCodec.Builder#lazyEvents(boolean)})
+     * stay undecoded.
+     *
+     * @param value a value which should be copied
+     * @param <T> type of the value
+     * @return the copy of the value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T copy(T value) {
+        Tracker copy;
+        try {
+            if(value instanceof Tracker == false) {
+                return (T) this.copyMapper.readValue(write(value), value.getClass());
+            }
+            copy = this.copyMapper.readValue(this.trackerWithoutEventsWriter.writeValueAsBytes(value), Tracker.class);
+        } catch (IOException e) {
+            throw new RasaException(e);
+        }
+        Tracker tracker = (Tracker) value;
+        List<Tracker.Event> events = tracker.getEvents();
+        if(events instanceof LazyEventList) {
+            copy.setEvents(((LazyEventList) events).copy());
+        } else if(events != null) {
+            List<Tracker.Event> copiedEvents = new ArrayList<>(events.size());
+            events.forEach(event -> copiedEvents.add(copyOf(event)));
+            copy.setEvents(copiedEvents);
+        }
+        return (T) copy;
+    }
+
+    /**
+     * @param event a tracker event (may be <code>null</code>)
+     * @return a copy of the event, which shares its (immutable) typed event
+     */
+    static Tracker.Event copyOf(Tracker.Event event) {
+        if(event == null) {
+            return null;
+        }
+        Tracker.Event copy = new Tracker.Event();
+        copy.setEvent(event.getEvent());
+        copy.setTimestamp(event.getTimestamp());
+        copy.setTypedEvent(event.getTypedEvent());
+        return copy;
+    }
+
+    EventTypeRegistry getEventTypes() {
+        return this.eventTypes;
+    }
+
+    /**
+     * @param factory a factory of parsers and generators of a data format (e.g. JSON, Smile or CBOR)
+     * @return a new mapper of the data format with the configuration of these bindings, which can be configured further
+     */
+    public ObjectMapper newObjectMapper(JsonFactory factory) {
+        ObjectMapper objectMapper = new ObjectMapper(factory)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                // an output stream is flushed once, when the whole value is written
+                .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        if(this.accessorsModule != null) {
+            objectMapper.registerModule(this.accessorsModule);
+        }
+        return objectMapper;
+    }
+
+    /**
+     * @return <code>true</code> - if properties are accessed by generated bytecode. Otherwise - <code>false</code>
+     */
+    public boolean isBytecodeAccessors() {
+        return this.accessorsModule != null;
+    }
+
+    //=================================================
+    // Builder
+    //=================================================
+
+    public static class Builder {
+        private boolean bytecodeAccessors;
+        private EventTypeRegistry eventTypes = new EventTypeRegistry();
+
+        /**
+         * @param bytecodeAccessors whether properties are accessed by bytecode generated by the Afterburner module of Jackson.
+         *                          {@link #build()} throws {@link RasaException}, if the module is not on the classpath
+         * @return this builder
+         */
+        public Builder bytecodeAccessors(boolean bytecodeAccessors) {
+            this.bytecodeAccessors = bytecodeAccessors;
+            return this;
+        }
+
+        /**
+         * @param eventTypes registry of types of tracker events, e.g. with custom events
+         * @return this builder
+         */
+        public Builder eventTypes(EventTypeRegistry eventTypes) {
+            this.eventTypes = eventTypes;
+            return this;
+        }
+
+        public JsonBindings build() {
+            return new JsonBindings(this);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * <p>Events of a tracker, which are kept as ranges of the raw request and decoded one by one on first access.</p>
+ *
+ * <p>Most actions never look at the history of a conversation, so it is not decoded at all. Actions looking
+ * only at the latest events (e.g. {@link Tracker#newestEventsFirst()}) decode only the visited ones.</p>
+ *
+ * @author Rafał Bajek
+ */
+final class LazyEventList extends AbstractList<Tracker.Event> implements RandomAccess {
+
+    /**
+     * Marks a <code>null</code> element of the array
+     */
+    static final int NULL_EVENT = -1;
+
+    private final ObjectReader eventReader;
+    private final byte[] source;
+    private final int[] starts;
+    private final int[] ends;
+
+    /**
+     * Already decoded events (guarded by this)
+     */
+    private final Tracker.Event[] decoded;
+
+    /**
+     * @param eventReader reader of a single event
+     * @param source the raw request
+     * @param starts offsets of the events within the source ({@link #NULL_EVENT} for <code>null</code> elements)
+     * @param ends offsets of the ends (exclusive) of the events within the source
+     */
+    LazyEventList(ObjectReader eventReader, byte[] source, int[] starts, int[] ends) {
+        this.eventReader = eventReader;
+        this.source = source;
+        this.starts = starts;
+        this.ends = ends;
+        this.decoded = new Tracker.Event[starts.length];
+    }
+
+    @Override
+    public synchronized Tracker.Event get(int index) {
+        Tracker.Event event = this.decoded[index];
+        if(event == null && this.starts[index] != NULL_EVENT) {
+            event = decode(index);
+            this.decoded[index] = event;
+        }
+        return event;
+    }
+
+    @Override
+    public synchronized Tracker.Event set(int index, Tracker.Event event) {
+        Tracker.Event previous = get(index);
+        this.decoded[index] = event;
+        this.starts[index] = NULL_EVENT;
+        return previous;
+    }
+
+    /**
+     * @return a copy of this list, which shares the raw request, so the events which are not decoded yet stay undecoded
+     */
+    synchronized LazyEventList copy() {
+        LazyEventList copy = new LazyEventList(this.eventReader, this.source, this.starts.clone(), this.ends);
+        for (int i = 0; i < this.decoded.length; i++) {
+            copy.decoded[i] = JsonBindings.copyOf(this.decoded[i]);
+        }
+        return copy;
+    }
+
+    @Override
+    public int size() {
+        return this.starts.length;
+    }
+
+    private Tracker.Event decode(int index) {
+        try {
+            return this.eventReader.readValue(this.source, this.starts[index], this.ends[index] - this.starts[index]);
+        } catch (IOException e) {
+            throw new RasaException(e);
+        }
+    }
+}
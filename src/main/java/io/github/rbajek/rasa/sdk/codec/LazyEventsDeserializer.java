@@ -0,0 +1,58 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Deserializer of <code>tracker.events</code>, which only records where every event starts and ends in the raw request
+ * (passed as the {@link #SOURCE_ATTRIBUTE} attribute), so the events are decoded lazily by {@link LazyEventList}
+ * (with the reader passed as the {@link #EVENT_READER_ATTRIBUTE} attribute).
+ * Without the raw request, the events are decoded right away.
+ *
+ * @author Rafał Bajek
+ */
+final class LazyEventsDeserializer extends JsonDeserializer<List<Tracker.Event>> {
+
+    static final String SOURCE_ATTRIBUTE = LazyEventsDeserializer.class.getName() + ".source";
+    static final String EVENT_READER_ATTRIBUTE = LazyEventsDeserializer.class.getName() + ".eventReader";
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    @Override
+    public List<Tracker.Event> deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        Object source = context.getAttribute(SOURCE_ATTRIBUTE);
+        Object eventReader = context.getAttribute(EVENT_READER_ATTRIBUTE);
+        if(source instanceof byte[] == false || eventReader instanceof ObjectReader == false || parser.currentToken() != JsonToken.START_ARRAY) {
+            return Arrays.asList(context.readValue(parser, Tracker.Event[].class));
+        }
+
+        int[] starts = new int[INITIAL_CAPACITY];
+        int[] ends = new int[INITIAL_CAPACITY];
+        int size = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if(size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            if(token == JsonToken.VALUE_NULL) {
+                starts[size] = LazyEventList.NULL_EVENT;
+            } else {
+                starts[size] = (int) parser.getTokenLocation().getByteOffset();
+                // skipping does not decode the contents of the event
+                parser.skipChildren();
+                ends[size] = (int) parser.getCurrentLocation().getByteOffset();
+            }
+            size++;
+        }
+        return new LazyEventList((ObjectReader) eventReader, (byte[]) source, Arrays.copyOf(starts, size), Arrays.copyOf(ends, size));
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+
+import java.util.List;
+
+/**
+ * Mix-in of {@link Tracker}, which decodes its events lazily (see {@link LazyEventsDeserializer})
+ *
+ * @author Rafał Bajek
+ */
+abstract class LazyEventsMixIn {
+
+    @JsonDeserialize(using = LazyEventsDeserializer.class)
+    private List<Tracker.Event> events;
+}
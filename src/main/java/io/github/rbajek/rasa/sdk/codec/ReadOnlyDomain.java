@@ -0,0 +1,94 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import io.github.rbajek.rasa.sdk.dto.Domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-only view of a decoded domain, which is shared by requests (see {@link DomainCache}).
+ * Its setters throw {@link UnsupportedOperationException} and its collections (as well as the values of its slots) are unmodifiable.
+ *
+ * @author Rafał Bajek
+ */
+final class ReadOnlyDomain extends Domain {
+
+    /**
+     * @param domain a decoded domain, which is not used anywhere else
+     */
+    ReadOnlyDomain(Domain domain) {
+        super.setConfig(domain.getConfig());
+        super.setIntents(unmodifiableList(domain.getIntents(), Collections::unmodifiableMap));
+        super.setEntities(unmodifiableList(domain.getEntities(), UnaryOperator.identity()));
+        if(domain.getSlots() != null) {
+            domain.getSlots().values().forEach(slot -> {
+                if(slot != null && slot.getValues() != null) {
+                    slot.setValues(Collections.unmodifiableList(slot.getValues()));
+                }
+            });
+        }
+        super.setSlots(unmodifiableMap(domain.getSlots(), UnaryOperator.identity()));
+        super.setTemplates(unmodifiableMap(domain.getTemplates(), templates -> templates != null ? Collections.unmodifiableList(templates) : null));
+        super.setActions(unmodifiableList(domain.getActions(), UnaryOperator.identity()));
+    }
+
+    private static <T> List<T> unmodifiableList(List<T> list, UnaryOperator<T> elementView) {
+        if(list == null) {
+            return null;
+        }
+        List<T> view = new ArrayList<>(list.size());
+        list.forEach(element -> view.add(element != null ? elementView.apply(element) : null));
+        return Collections.unmodifiableList(view);
+    }
+
+    private static <V> Map<String, V> unmodifiableMap(Map<String, V> map, UnaryOperator<V> valueView) {
+        if(map == null) {
+            return null;
+        }
+        Map<String, V> view = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+        map.forEach((key, value) -> view.put(key, value != null ? valueView.apply(value) : null));
+        return Collections.unmodifiableMap(view);
+    }
+
+    //=================================================
+    // Class methods
+    //=================================================
+
+    @Override
+    public void setConfig(Config config) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setIntents(List<Map<String, Intent>> intents) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setEntities(List<String> entities) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setSlots(Map<String, Slot> slots) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setTemplates(Map<String, List<Template>> templates) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setActions(List<String> actions) {
+        throw readOnly();
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("The cached domain is shared by requests, so it cannot be modified");
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import io.github.rbajek.rasa.sdk.util.StringUtils;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Mix-in of {@link io.github.rbajek.rasa.sdk.dto.event.ReminderScheduled}, which decodes its date
+ * from the ISO date-time sent by Rasa (e.g. <code>2020-03-20T12:00:00</code>)
+ *
+ * @author Rafał Bajek
+ */
+abstract class ReminderScheduledMixIn {
+
+    @JsonProperty("date_time")
+    @JsonDeserialize(using = IsoDateDeserializer.class)
+    private LocalDate date;
+
+    static final class IsoDateDeserializer extends JsonDeserializer<LocalDate> {
+
+        private static final int DATE_LENGTH = "yyyy-MM-dd".length();
+
+        @Override
+        public LocalDate deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            String text = parser.getValueAsString();
+            if(StringUtils.isNullOrEmpty(text)) {
+                return null;
+            }
+            return LocalDate.parse(text.length() > DATE_LENGTH ? text.substring(0, DATE_LENGTH) : text);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * <p>Smile codec: the data model of {@link JsonActionCodec} in the binary encoding of JSON by Jackson.</p>
+ *
+ * <p>Rasa itself speaks JSON only, so this codec is meant for internal hops between Java services
+ * (e.g. a gateway and action servers), where it saves parsing and generating text.</p>
+ *
+ * @author Rafał Bajek
+ */
+public class SmileActionCodec extends JsonActionCodec {
+
+    public static final String CONTENT_TYPE = "application/x-jackson-smile";
+
+    static final SmileActionCodec INSTANCE = new SmileActionCodec();
+
+    /**
+     * Create a codec with the shared bindings (see {@link JsonBindings#shared()})
+     */
+    public SmileActionCodec() {
+        this(JsonBindings.shared());
+    }
+
+    /**
+     * @param bindings data binding used by the codec
+     */
+    public SmileActionCodec(JsonBindings bindings) {
+        super(builder().bindings(bindings), new SmileFactory(), CONTENT_TYPE);
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Deserializer of strings, which returns canonical instances of symbols (see {@link SymbolTable})
+ *
+ * @author Rafał Bajek
+ */
+final class SymbolStringDeserializer extends StdScalarDeserializer<String> {
+
+    private final SymbolTable symbols;
+
+    SymbolStringDeserializer(SymbolTable symbols) {
+        super(String.class);
+        this.symbols = symbols;
+    }
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if(parser.hasToken(JsonToken.VALUE_STRING)) {
+            return readSymbol(parser, this.symbols);
+        }
+        return StringDeserializer.instance.deserialize(parser, context);
+    }
+
+    @Override
+    public boolean isCachable() {
+        return true;
+    }
+
+    /**
+     * @return the canonical instance of the current string value, or a new string if it is not a symbol
+     */
+    static String readSymbol(JsonParser parser, SymbolTable symbols) throws IOException {
+        int length = parser.getTextLength();
+        if(length <= SymbolTable.MAX_SYMBOL_LENGTH) {
+            String symbol = symbols.lookup(parser.getTextCharacters(), parser.getTextOffset(), length);
+            if(symbol != null) {
+                return symbol;
+            }
+        }
+        return parser.getText();
+    }
+}
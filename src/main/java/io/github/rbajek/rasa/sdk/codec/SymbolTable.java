@@ -0,0 +1,263 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import io.github.rbajek.rasa.sdk.dto.Domain;
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>Table of canonical instances of the small vocabulary of a bot: names of actions, intents, entities and slots,
+ * values of categorical slots etc.</p>
+ *
+ * <p>A decoder looks strings up straight in its character buffer, so a known name is neither allocated again
+ * nor kept in many copies by long-lived trackers, and map lookups by canonical names succeed already on comparing
+ * references. Unknown strings are never added while decoding, so user texts cannot grow the table.</p>
+ *
+ * <p>Lookups never lock: every modification publishes a new open-addressing table.</p>
+ *
+ * <p>The table holds at most {@link #DEFAULT_MAX_SYMBOLS} symbols (or the number given to {@link #SymbolTable(int)}).
+ * Once it is full, further symbols are not added (a warning is logged the first time), so the strings are still
+ * decoded, but not interned.</p>
+ *
+ * @author Rafał Bajek
+ */
+public final class SymbolTable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SymbolTable.class);
+
+    /**
+     * Longer strings are not symbols, so they are neither added nor looked up
+     */
+    public static final int MAX_SYMBOL_LENGTH = 64;
+
+    /**
+     * Default maximum number of symbols in a table
+     */
+    public static final int DEFAULT_MAX_SYMBOLS = 8192;
+
+    private static final List<String> BUILT_IN_SYMBOLS = Arrays.asList(
+            "action_listen", "action_restart", "action_default_fallback", "action_deactivate_form", "requested_slot",
+            "user", "bot", "action", "slot", "form", "form_validation", "action_execution_rejected", "followup",
+            "reset_slots", "restart", "undo", "rewind", "reminder", "cancel_reminder", "pause", "resume", "agent", "export");
+
+    private final int maxSymbols;
+    private volatile String[] table = new String[16];
+    private int size;
+    private boolean full;
+
+    /**
+     * Create a table with the names built into Rasa (e.g. <code>action_listen</code> or <code>requested_slot</code>),
+     * which holds at most {@link #DEFAULT_MAX_SYMBOLS} symbols
+     */
+    public SymbolTable() {
+        this(DEFAULT_MAX_SYMBOLS);
+    }
+
+    /**
+     * Create a table with the names built into Rasa (e.g. <code>action_listen</code> or <code>requested_slot</code>)
+     *
+     * @param maxSymbols maximum number of symbols in the table, including the built-in ones
+     */
+    public SymbolTable(int maxSymbols) {
+        if(maxSymbols <= 0) {
+            throw new RasaException("Maximum number of symbols must be greater than 0");
+        }
+        this.maxSymbols = maxSymbols;
+        addAll(BUILT_IN_SYMBOLS);
+    }
+
+    //=================================================
+    // Class methods
+    //=================================================
+
+    /**
+     * Find the canonical instance of a string
+     *
+     * @param chars characters of the string
+     * @param offset offset of the string in the characters
+     * @param length length of the string
+     * @return the canonical instance, or <code>null</code> if the string is not a symbol
+     */
+    public String lookup(char[] chars, int offset, int length) {
+        if(length > MAX_SYMBOL_LENGTH) {
+            return null;
+        }
+        // the same hash as String.hashCode(), which is cached by the symbols
+        int hash = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        String[] symbols = this.table;
+        int mask = symbols.length - 1;
+        for (int index = spread(hash) & mask; ; index = (index + 1) & mask) {
+            String symbol = symbols[index];
+            if(symbol == null) {
+                return null;
+            }
+            if(symbol.hashCode() == hash && matches(symbol, chars, offset, length)) {
+                return symbol;
+            }
+        }
+    }
+
+    /**
+     * @param value a string
+     * @return the canonical instance of the string, or the string itself if it is not a symbol
+     */
+    public String intern(String value) {
+        if(value == null || value.length() > MAX_SYMBOL_LENGTH) {
+            return value;
+        }
+        String[] symbols = this.table;
+        int mask = symbols.length - 1;
+        for (int index = spread(value.hashCode()) & mask; ; index = (index + 1) & mask) {
+            String symbol = symbols[index];
+            if(symbol == null) {
+                return value;
+            }
+            if(symbol.equals(value)) {
+                return symbol;
+            }
+        }
+    }
+
+    /**
+     * Add symbols, e.g. names of the registered actions (see {@link io.github.rbajek.rasa.sdk.ActionExecutor#getRegisteredActionNames()}).
+     * Strings longer than {@link #MAX_SYMBOL_LENGTH} and already known symbols are skipped, so adding the same
+     * names again (e.g. with every request) neither grows nor copies the table. Symbols exceeding the maximum number
+     * of symbols of the table are skipped.
+     *
+     * @param symbols symbols to add
+     */
+    public synchronized void addAll(Collection<String> symbols) {
+        if(this.full) {
+            return;
+        }
+        Set<String> added = new LinkedHashSet<>();
+        for (String symbol : symbols) {
+            if(symbol != null && symbol.length() <= MAX_SYMBOL_LENGTH && contains(symbol) == false) {
+                added.add(symbol);
+            }
+        }
+        if(added.isEmpty()) {
+            return;
+        }
+        int newSize = Math.min(this.size + added.size(), this.maxSymbols);
+        if(newSize < this.size + added.size()) {
+            // from now on symbols are skipped without even looking them up
+            this.full = true;
+            LOGGER.warn("Symbol table has reached its limit of {} symbols, {} symbols and any further ones are not interned",
+                    this.maxSymbols, this.size + added.size() - newSize);
+            if(newSize == this.size) {
+                return;
+            }
+        }
+        String[] oldTable = this.table;
+        int capacity = oldTable.length;
+        // at most half full, so a lookup of a missing string soon finds an empty slot
+        while (capacity < newSize * 2) {
+            capacity *= 2;
+        }
+        String[] newTable = new String[capacity];
+        for (String symbol : oldTable) {
+            if(symbol != null) {
+                put(newTable, symbol);
+            }
+        }
+        Iterator<String> addedIterator = added.iterator();
+        for (int i = this.size; i < newSize; i++) {
+            put(newTable, addedIterator.next());
+        }
+        this.size = newSize;
+        this.table = newTable;
+    }
+
+    /**
+     * Add names of intents, entities, slots, responses and actions of a domain, and values of its categorical slots
+     *
+     * @param domain a domain
+     */
+    public void addDomain(Domain domain) {
+        List<String> symbols = new ArrayList<>();
+        if(domain.getIntents() != null) {
+            domain.getIntents().forEach(intent -> symbols.addAll(intent.keySet()));
+        }
+        if(domain.getEntities() != null) {
+            symbols.addAll(domain.getEntities());
+        }
+        if(domain.getSlots() != null) {
+            for (Map.Entry<String, Domain.Slot> slot : domain.getSlots().entrySet()) {
+                symbols.add(slot.getKey());
+                if(slot.getValue() != null && slot.getValue().getValues() != null) {
+                    symbols.addAll(slot.getValue().getValues());
+                }
+            }
+        }
+        if(domain.getTemplates() != null) {
+            symbols.addAll(domain.getTemplates().keySet());
+        }
+        if(domain.getActions() != null) {
+            symbols.addAll(domain.getActions());
+        }
+        addAll(symbols);
+    }
+
+    /**
+     * @param value a string
+     * @return <code>true</code> - if the table has a symbol equal to the string. Otherwise - <code>false</code>
+     */
+    private boolean contains(String value) {
+        String[] symbols = this.table;
+        int mask = symbols.length - 1;
+        for (int index = spread(value.hashCode()) & mask; ; index = (index + 1) & mask) {
+            String symbol = symbols[index];
+            if(symbol == null) {
+                return false;
+            }
+            if(symbol.equals(value)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return number of symbols
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    private static void put(String[] table, String symbol) {
+        int mask = table.length - 1;
+        int index = spread(symbol.hashCode()) & mask;
+        while (table[index] != null) {
+            index = (index + 1) & mask;
+        }
+        table[index] = symbol;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String symbol, char[] chars, int offset, int length) {
+        if(symbol.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if(symbol.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
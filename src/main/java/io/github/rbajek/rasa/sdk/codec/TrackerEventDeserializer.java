@@ -0,0 +1,106 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+
+import java.io.IOException;
+
+/**
+ * <p>Deserializer of tracker events, which decodes every event also into its own type
+ * (see {@link Tracker.Event#getTypedEvent()}), resolved by {@link EventTypeRegistry}.</p>
+ *
+ * <p>Rasa writes the <code>event</code> discriminator as the first property, so the type is known before the rest
+ * of the event is read, and the rest is bound straight into the typed event. Events of unknown types are skipped
+ * without binding (only their timestamp is read). An event with the discriminator further on is buffered first.</p>
+ *
+ * @author Rafał Bajek
+ */
+final class TrackerEventDeserializer extends StdDeserializer<Tracker.Event> {
+
+    private static final String EVENT = "event";
+    private static final String TIMESTAMP = "timestamp";
+    private static final byte[] EMPTY_OBJECT = {'{', '}'};
+
+    private final EventTypeRegistry eventTypes;
+    private final JsonBindings bindings;
+
+    /**
+     * @param eventTypes registry of types of the events
+     * @param bindings bindings, which provide the readers of the typed events
+     */
+    TrackerEventDeserializer(EventTypeRegistry eventTypes, JsonBindings bindings) {
+        super(Tracker.Event.class);
+        this.eventTypes = eventTypes;
+        this.bindings = bindings;
+    }
+
+    @Override
+    public Tracker.Event deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if(token == JsonToken.START_OBJECT) {
+            token = parser.nextToken();
+        }
+        if(token == JsonToken.FIELD_NAME && EVENT.equals(parser.getCurrentName())) {
+            parser.nextToken();
+            String discriminator = parser.getValueAsString();
+            parser.nextToken();
+            return readEvent(discriminator, parser);
+        }
+
+        TokenBuffer buffer = new TokenBuffer(parser, context);
+        buffer.writeStartObject();
+        String discriminator = null;
+        while (parser.currentToken() == JsonToken.FIELD_NAME) {
+            if(EVENT.equals(parser.getCurrentName())) {
+                parser.nextToken();
+                discriminator = parser.getValueAsString();
+            } else {
+                buffer.copyCurrentStructure(parser);
+            }
+            parser.nextToken();
+        }
+        buffer.writeEndObject();
+        try (JsonParser bufferParser = buffer.asParser(parser.getCodec())) {
+            bufferParser.nextToken();
+            bufferParser.nextToken();
+            return readEvent(discriminator, bufferParser);
+        }
+    }
+
+    /**
+     * @param discriminator a value of the <code>event</code> property
+     * @param parser a parser positioned at the next property of the event (or the end of the event)
+     */
+    private Tracker.Event readEvent(String discriminator, JsonParser parser) throws IOException {
+        Tracker.Event trackerEvent = new Tracker.Event();
+        trackerEvent.setEvent(discriminator);
+        Class<? extends AbstractEvent> type = discriminator != null ? this.eventTypes.typeOf(discriminator) : null;
+        if(type == null) {
+            while (parser.currentToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if(TIMESTAMP.equals(fieldName) && value != JsonToken.VALUE_NULL) {
+                    trackerEvent.setTimestamp(parser.getValueAsLong());
+                } else {
+                    parser.skipChildren();
+                }
+                parser.nextToken();
+            }
+            return trackerEvent;
+        }
+
+        ObjectReader reader = this.bindings.readerFor(type);
+        AbstractEvent typedEvent = parser.currentToken() == JsonToken.END_OBJECT
+                ? reader.readValue(EMPTY_OBJECT)
+                : reader.readValue(parser);
+        trackerEvent.setTimestamp(typedEvent.getTimestamp());
+        trackerEvent.setTypedEvent(typedEvent);
+        return trackerEvent;
+    }
+}
@@ -0,0 +1,170 @@
+package io.github.rbajek.rasa.sdk.concurrent;
+
+import io.github.rbajek.rasa.sdk.exception.BulkheadFullException;
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Limits number of concurrent calls of an action, so one slow action cannot use up all workers.</p>
+ *
+ * <p>Calls over the limit wait in a bounded queue, calls over the queue are rejected immediately
+ * with {@link BulkheadFullException}. A bulkhead without a limit only counts the calls in flight.</p>
+ *
+ * @author Rafał Bajek
+ */
+public class Bulkhead {
+
+    private static final CompletableFuture<Void> ADMITTED = CompletableFuture.completedFuture(null);
+
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final int maxQueuedCalls;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Calls waiting for a permit (guarded by this)
+     */
+    private final Deque<CompletableFuture<Void>> queue = new ArrayDeque<>();
+
+    /**
+     * @param name a name of the bulkhead (e.g. an action name)
+     * @param maxConcurrentCalls maximum number of calls in flight
+     * @param maxQueuedCalls maximum number of calls waiting for a permit
+     */
+    public Bulkhead(String name, int maxConcurrentCalls, int maxQueuedCalls) {
+        if(maxConcurrentCalls <= 0 || maxQueuedCalls < 0) {
+            throw new RasaException("Invalid limits of the bulkhead '" + name + "': maxConcurrentCalls=" + maxConcurrentCalls + ", maxQueuedCalls=" + maxQueuedCalls);
+        }
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxQueuedCalls = maxQueuedCalls;
+    }
+
+    /**
+     * Create a bulkhead, which does not limit the calls
+     *
+     * @param name a name of the bulkhead (e.g. an action name)
+     * @return a new bulkhead
+     */
+    public static Bulkhead unlimited(String name) {
+        return new Bulkhead(name, Integer.MAX_VALUE, 0);
+    }
+
+    //=================================================
+    // Class methods
+    //=================================================
+
+    /**
+     * Acquire a permit for a call. Every acquired permit has to be released by {@link #release()}.
+     *
+     * @return already completed future if the permit is granted, otherwise a future which is completed
+     *         when the queued call gets the permit
+     * @throws BulkheadFullException if both the concurrency limit and the queue are full
+     */
+    public CompletableFuture<Void> acquire() {
+        if(isUnlimited()) {
+            this.inFlight.incrementAndGet();
+            return ADMITTED;
+        }
+        synchronized (this) {
+            if(this.inFlight.get() < this.maxConcurrentCalls) {
+                this.inFlight.incrementAndGet();
+                return ADMITTED;
+            }
+            if(this.queue.size() < this.maxQueuedCalls) {
+                CompletableFuture<Void> permit = new CompletableFuture<>();
+                this.queue.addLast(permit);
+                return permit;
+            }
+        }
+        throw new BulkheadFullException("Action '" + this.name + "' has reached the limit of " + this.maxConcurrentCalls
+                + " concurrent and " + this.maxQueuedCalls + " queued calls");
+    }
+
+    /**
+     * Acquire a permit for a call only if it is available right away, without queuing the call (e.g. for a hedged
+     * attempt of a call, which must not delay the queued calls). An acquired permit has to be released by {@link #release()}.
+     *
+     * @return <code>true</code> - if the permit is granted. Otherwise - <code>false</code>
+     */
+    public boolean tryAcquire() {
+        if(isUnlimited()) {
+            this.inFlight.incrementAndGet();
+            return true;
+        }
+        synchronized (this) {
+            if(this.inFlight.get() < this.maxConcurrentCalls && this.queue.isEmpty()) {
+                this.inFlight.incrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Give up waiting for a permit (e.g. when the deadline of the call has passed)
+     *
+     * @param permit a permit returned by {@link #acquire()}
+     * @return <code>true</code> - if the call was removed from the queue. <code>false</code> - if the permit has been
+     *         already granted, so it has to be released
+     */
+    public boolean cancel(CompletableFuture<Void> permit) {
+        synchronized (this) {
+            return this.queue.remove(permit);
+        }
+    }
+
+    /**
+     * Release a permit. The permit is handed over to the first queued call, if any.
+     */
+    public void release() {
+        if(isUnlimited()) {
+            this.inFlight.decrementAndGet();
+            return;
+        }
+        CompletableFuture<Void> next;
+        synchronized (this) {
+            next = this.queue.pollFirst();
+            if(next == null) {
+                this.inFlight.decrementAndGet();
+                return;
+            }
+        }
+        next.complete(null);
+    }
+
+    public boolean isUnlimited() {
+        return this.maxConcurrentCalls == Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return number of calls in flight
+     */
+    public int getInFlightCalls() {
+        return this.inFlight.get();
+    }
+
+    /**
+     * @return number of calls waiting for a permit
+     */
+    public synchronized int getQueuedCalls() {
+        return this.queue.size();
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getMaxConcurrentCalls() {
+        return this.maxConcurrentCalls;
+    }
+
+    public int getMaxQueuedCalls() {
+        return this.maxQueuedCalls;
+    }
+}
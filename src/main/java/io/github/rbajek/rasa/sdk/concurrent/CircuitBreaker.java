@@ -0,0 +1,297 @@
+package io.github.rbajek.rasa.sdk.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>Stops calling an action whose downstream dependency is failing, so callers fail fast instead of waiting
+ * for the dependency to time out.</p>
+ *
+ * <p>Outcomes of calls are counted in a time-based sliding window. When the rate of failed or slow calls
+ * reaches its threshold, the circuit opens and all calls are refused. After the open duration the circuit
+ * becomes half-open and lets a few probe calls through: if all of them succeed, the circuit closes,
+ * otherwise it opens again. All state is updated without locks.</p>
+ *
+ * <p>Every call permitted by {@link #tryAcquire()} has to report its outcome through its {@link Permit}. The outcome
+ * counts only for the state of the circuit which has permitted the call, so e.g. a slow call permitted while
+ * the circuit was closed is not taken for a probe of the half-open circuit.</p>
+ *
+ * @author Rafał Bajek
+ */
+public class CircuitBreaker {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final CircuitBreakerConfig config;
+    private final SlidingWindow window;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<Phase> phase = new AtomicReference<>(new Phase(State.CLOSED, 0L));
+    private final Permit unrestrictedPermit = new Permit(null);
+
+    /**
+     * @param name a name of the circuit breaker (e.g. an action name)
+     * @param config configuration of the circuit breaker
+     */
+    public CircuitBreaker(String name, CircuitBreakerConfig config) {
+        this(name, config, System::nanoTime);
+    }
+
+    /**
+     * @param name a name of the circuit breaker (e.g. an action name)
+     * @param config configuration of the circuit breaker
+     * @param nanoClock source of the current time in nanoseconds (e.g. a fake clock of a test)
+     */
+    CircuitBreaker(String name, CircuitBreakerConfig config, LongSupplier nanoClock) {
+        this.name = name;
+        this.config = config;
+        this.nanoClock = nanoClock;
+        this.window = config != null ? new SlidingWindow(config.getSlidingWindow().toNanos(), config.getSlidingWindowBuckets()) : null;
+    }
+
+    /**
+     * Create a circuit breaker, which is always closed
+     *
+     * @param name a name of the circuit breaker (e.g. an action name)
+     * @return a new circuit breaker
+     */
+    public static CircuitBreaker disabled(String name) {
+        return new CircuitBreaker(name, null);
+    }
+
+    //=================================================
+    // Class methods
+    //=================================================
+
+    /**
+     * @return permit of the call, which reports its outcome, or <code>null</code> if the call is not permitted
+     *         (the circuit is open, or all probe calls of the half-open circuit are in flight)
+     */
+    public Permit tryAcquire() {
+        if(isDisabled()) {
+            return this.unrestrictedPermit;
+        }
+        Phase current = this.phase.get();
+        if(current.state == State.OPEN) {
+            if(this.nanoClock.getAsLong() - current.sinceNanos < this.config.getOpenDuration().toNanos()) {
+                return null;
+            }
+            Phase halfOpen = new Phase(State.HALF_OPEN, this.nanoClock.getAsLong());
+            if(this.phase.compareAndSet(current, halfOpen)) {
+                LOGGER.info("Circuit breaker of '{}' is half-open", this.name);
+            }
+            current = this.phase.get();
+        }
+        if(current.state == State.HALF_OPEN) {
+            if(current.probes.incrementAndGet() > this.config.getHalfOpenCalls()) {
+                current.probes.decrementAndGet();
+                return null;
+            }
+            return new Permit(current);
+        }
+        return current.state == State.CLOSED ? new Permit(current) : null;
+    }
+
+    /**
+     * @param current the phase which has permitted the call
+     */
+    private void record(Phase current, boolean failed, long durationNanos) {
+        if(this.phase.get() != current) {
+            // the state has changed since the call was permitted (e.g. a new window has started)
+            return;
+        }
+        boolean slow = this.config.getSlowCallDuration() != null && durationNanos >= this.config.getSlowCallDuration().toNanos();
+        if(current.state == State.HALF_OPEN) {
+            if(failed || slow) {
+                open(current);
+            } else if(current.successfulProbes.incrementAndGet() >= this.config.getHalfOpenCalls()) {
+                this.window.reset();
+                if(this.phase.compareAndSet(current, new Phase(State.CLOSED, this.nanoClock.getAsLong()))) {
+                    LOGGER.info("Circuit breaker of '{}' is closed", this.name);
+                }
+            }
+            return;
+        }
+        if(current.state == State.CLOSED) {
+            long[] totals = this.window.record(this.nanoClock.getAsLong(), failed, slow);
+            long calls = totals[0];
+            if(calls >= this.config.getMinimumCalls()
+                    && (totals[1] >= this.config.getFailureRateThreshold() * calls || totals[2] >= this.config.getSlowCallRateThreshold() * calls)) {
+                open(current);
+            }
+        }
+    }
+
+    private void open(Phase current) {
+        if(this.phase.compareAndSet(current, new Phase(State.OPEN, this.nanoClock.getAsLong()))) {
+            LOGGER.warn("Circuit breaker of '{}' is open", this.name);
+        }
+    }
+
+    /**
+     * @return <code>true</code> - if this circuit breaker never refuses calls. Otherwise - <code>false</code>
+     */
+    public boolean isDisabled() {
+        return this.config == null;
+    }
+
+    public State getState() {
+        return this.phase.get().state;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    //=================================================
+    // Inner Types
+    //=================================================
+
+    /**
+     * Permit of a single call. Only the first outcome reported by the permit counts.
+     */
+    public final class Permit {
+
+        /**
+         * Phase which has permitted the call, or <code>null</code> if the circuit breaker is disabled
+         */
+        private final Phase phase;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Phase phase) {
+            this.phase = phase;
+        }
+
+        /**
+         * Report a successful call
+         *
+         * @param durationNanos duration of the call in nanoseconds
+         */
+        public void onSuccess(long durationNanos) {
+            if(release()) {
+                record(this.phase, false, durationNanos);
+            }
+        }
+
+        /**
+         * Report a failed call
+         *
+         * @param durationNanos duration of the call in nanoseconds
+         */
+        public void onError(long durationNanos) {
+            if(release()) {
+                record(this.phase, true, durationNanos);
+            }
+        }
+
+        /**
+         * Report a permitted call, which has not been made (e.g. it has been rejected by a bulkhead)
+         */
+        public void onIgnored() {
+            if(release() && this.phase.state == State.HALF_OPEN) {
+                this.phase.probes.decrementAndGet();
+            }
+        }
+
+        private boolean release() {
+            return this.phase != null && this.released.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * State of the circuit together with its counters of probe calls, so a new state starts with new counters
+     */
+    private static final class Phase {
+        private final State state;
+        private final long sinceNanos;
+        private final AtomicInteger probes = new AtomicInteger();
+        private final AtomicInteger successfulProbes = new AtomicInteger();
+
+        private Phase(State state, long sinceNanos) {
+            this.state = state;
+            this.sinceNanos = sinceNanos;
+        }
+    }
+
+    /**
+     * Lock-free time-based sliding window: a ring of buckets, each one counting the calls of one time slice.
+     * A bucket of an older slice is replaced (by CAS) when its slot is reused.
+     */
+    private static final class SlidingWindow {
+        private final long bucketNanos;
+        private final AtomicReferenceArray<Bucket> buckets;
+
+        private SlidingWindow(long windowNanos, int bucketCount) {
+            this.bucketNanos = windowNanos / bucketCount;
+            this.buckets = new AtomicReferenceArray<>(bucketCount);
+        }
+
+        /**
+         * Count the call and sum up the calls within the window
+         *
+         * @return number of calls, failed calls and slow calls
+         */
+        private long[] record(long nowNanos, boolean failed, boolean slow) {
+            long slice = Math.floorDiv(nowNanos, this.bucketNanos);
+            Bucket bucket = bucketOf(slice);
+            bucket.calls.incrementAndGet();
+            if(failed) {
+                bucket.failures.incrementAndGet();
+            }
+            if(slow) {
+                bucket.slowCalls.incrementAndGet();
+            }
+
+            long[] totals = new long[3];
+            for (int i = 0; i < this.buckets.length(); i++) {
+                Bucket current = this.buckets.get(i);
+                if(current != null && slice - current.slice < this.buckets.length()) {
+                    totals[0] += current.calls.get();
+                    totals[1] += current.failures.get();
+                    totals[2] += current.slowCalls.get();
+                }
+            }
+            return totals;
+        }
+
+        private Bucket bucketOf(long slice) {
+            int index = (int) Math.floorMod(slice, (long) this.buckets.length());
+            while (true) {
+                Bucket bucket = this.buckets.get(index);
+                if(bucket != null && bucket.slice >= slice) {
+                    return bucket;
+                }
+                Bucket fresh = new Bucket(slice);
+                if(this.buckets.compareAndSet(index, bucket, fresh)) {
+                    return fresh;
+                }
+            }
+        }
+
+        private void reset() {
+            for (int i = 0; i < this.buckets.length(); i++) {
+                this.buckets.set(i, null);
+            }
+        }
+    }
+
+    private static final class Bucket {
+        private final long slice;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger slowCalls = new AtomicInteger();
+
+        private Bucket(long slice) {
+            this.slice = slice;
+        }
+    }
+}
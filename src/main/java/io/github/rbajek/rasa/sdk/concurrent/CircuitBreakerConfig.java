@@ -0,0 +1,132 @@
+package io.github.rbajek.rasa.sdk.concurrent;
+
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * Configuration of a {@link CircuitBreaker}
+ *
+ * @author Rafał Bajek
+ */
+@Getter
+@ToString
+public class CircuitBreakerConfig {
+
+    //=================================================
+    // Class fields
+    //=================================================
+
+    /**
+     * Rate of failed calls (from 0 to 1) within the sliding window, which opens the circuit
+     */
+    private double failureRateThreshold = 0.5;
+
+    /**
+     * Calls lasting at least this long are counted as slow. If not set, calls are never slow
+     */
+    private Duration slowCallDuration;
+
+    /**
+     * Rate of slow calls (from 0 to 1) within the sliding window, which opens the circuit
+     */
+    private double slowCallRateThreshold = 1.0;
+
+    /**
+     * Minimum number of calls within the sliding window, before the rates are evaluated
+     */
+    private int minimumCalls = 10;
+
+    /**
+     * Length of the sliding window
+     */
+    private Duration slidingWindow = Duration.ofSeconds(10);
+
+    /**
+     * Number of buckets of the sliding window. The oldest bucket is dropped as the window slides
+     */
+    private int slidingWindowBuckets = 10;
+
+    /**
+     * How long the circuit stays open, before probe calls are permitted
+     */
+    private Duration openDuration = Duration.ofSeconds(30);
+
+    /**
+     * Number of probe calls permitted when the circuit is half-open. All of them have to succeed to close the circuit
+     */
+    private int halfOpenCalls = 1;
+
+    //=================================================
+    // Constructors
+    //=================================================
+
+    private CircuitBreakerConfig() {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    //=================================================
+    // Builder
+    //=================================================
+
+    public static class Builder {
+        private final CircuitBreakerConfig instance = new CircuitBreakerConfig();
+
+        public Builder failureRateThreshold(double failureRateThreshold) {
+            this.instance.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        public Builder slowCallDuration(Duration slowCallDuration) {
+            this.instance.slowCallDuration = slowCallDuration;
+            return this;
+        }
+
+        public Builder slowCallRateThreshold(double slowCallRateThreshold) {
+            this.instance.slowCallRateThreshold = slowCallRateThreshold;
+            return this;
+        }
+
+        public Builder minimumCalls(int minimumCalls) {
+            this.instance.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        public Builder slidingWindow(Duration slidingWindow, int buckets) {
+            this.instance.slidingWindow = slidingWindow;
+            this.instance.slidingWindowBuckets = buckets;
+            return this;
+        }
+
+        public Builder openDuration(Duration openDuration) {
+            this.instance.openDuration = openDuration;
+            return this;
+        }
+
+        public Builder halfOpenCalls(int halfOpenCalls) {
+            this.instance.halfOpenCalls = halfOpenCalls;
+            return this;
+        }
+
+        public CircuitBreakerConfig build() {
+            CircuitBreakerConfig config = this.instance;
+            if(config.failureRateThreshold <= 0 || config.failureRateThreshold > 1
+                    || config.slowCallRateThreshold <= 0 || config.slowCallRateThreshold > 1) {
+                throw new RasaException("Thresholds of a circuit breaker must be greater than 0 and not greater than 1");
+            }
+            if(config.minimumCalls <= 0 || config.halfOpenCalls <= 0 || config.slidingWindowBuckets <= 0) {
+                throw new RasaException("Invalid circuit breaker: " + config);
+            }
+            if(config.slidingWindow == null || config.slidingWindow.toNanos() < config.slidingWindowBuckets
+                    || config.openDuration == null || config.openDuration.isNegative()) {
+                throw new RasaException("Invalid durations of a circuit breaker: " + config);
+            }
+            return config;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.rbajek.rasa.sdk.concurrent;
+
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executor;
+
+/**
+ * <p>Executor which distributes tasks onto a fixed set of single-threaded lanes by a partition key.</p>
+ *
+ * <p>Tasks with the same key (e.g. the same conversation) are always run by the same lane, so they are
+ * run one after another in the order of submission, without any global lock. Tasks with different keys
+ * run in parallel on different lanes.</p>
+ *
+ * <p>When used by {@link io.github.rbajek.rasa.sdk.ActionExecutor}, requests are partitioned by the sender
+ * (or conversation) id. Note, that for {@link io.github.rbajek.rasa.sdk.action.AsyncAction} only the
+ * synchronous part of the action and building of the response are run by the lane.</p>
+ *
+ * @author Rafał Bajek
+ */
+public class PartitionedExecutor implements Executor, AutoCloseable {
+
+    private final ExecutorService[] lanes;
+
+    /**
+     * Create an executor with as many lanes as available processors
+     */
+    public PartitionedExecutor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param laneCount number of lanes (threads)
+     */
+    public PartitionedExecutor(int laneCount) {
+        this(laneCount, "rasa-lane-");
+    }
+
+    /**
+     * @param laneCount number of lanes (threads)
+     * @param threadNamePrefix a prefix of names of the lane threads
+     */
+    public PartitionedExecutor(int laneCount, String threadNamePrefix) {
+        if(laneCount <= 0) {
+            throw new RasaException("Number of lanes must be positive");
+        }
+        this.lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            String threadName = threadNamePrefix + i;
+            this.lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Run the task on the lane assigned to the given partition key
+     *
+     * @param partitionKey a partition key (e.g. a sender id). Tasks without a key are run on the first lane
+     * @param task a task
+     */
+    public void execute(Object partitionKey, Runnable task) {
+        this.lanes[laneOf(partitionKey)].execute(task);
+    }
+
+    /**
+     * Run the task, which does not belong to any partition, on a random lane
+     *
+     * @param task a task
+     */
+    @Override
+    public void execute(Runnable task) {
+        this.lanes[ThreadLocalRandom.current().nextInt(this.lanes.length)].execute(task);
+    }
+
+    /**
+     * @return number of lanes
+     */
+    public int getLaneCount() {
+        return this.lanes.length;
+    }
+
+    int laneOf(Object partitionKey) {
+        if(partitionKey == null) {
+            return 0;
+        }
+        int hash = partitionKey.hashCode();
+        // spread higher bits, the same way as HashMap does
+        hash ^= (hash >>> 16);
+        return (hash & Integer.MAX_VALUE) % this.lanes.length;
+    }
+
+    /**
+     * Shut down all lanes. Already submitted tasks are still run.
+     */
+    @Override
+    public void close() {
+        for (ExecutorService lane : this.lanes) {
+            lane.shutdown();
+        }
+    }
+}
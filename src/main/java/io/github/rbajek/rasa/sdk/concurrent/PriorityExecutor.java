@@ -0,0 +1,228 @@
+package io.github.rbajek.rasa.sdk.concurrent;
+
+import io.github.rbajek.rasa.sdk.action.ActionPriority;
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>Executor with a fixed set of workers and a multi-level queue, one level per {@link ActionPriority}.</p>
+ *
+ * <p>A free worker takes the oldest task of the highest priority, so under load e.g. forms
+ * (see {@link io.github.rbajek.rasa.sdk.action.form.AbstractFormAction}) are not stuck behind bulk lookups.
+ * To protect lower priorities against starvation, a task which has been waiting longer than the maximum wait
+ * is taken first, regardless of its priority.</p>
+ *
+ * <p>When used by {@link io.github.rbajek.rasa.sdk.ActionExecutor}, requests are queued with the priority
+ * of the requested action (see {@link io.github.rbajek.rasa.sdk.action.Action#priority()}).</p>
+ *
+ * <p>An executor is created with its workers already running by one of the <code>start</code> methods.</p>
+ *
+ * @author Rafał Bajek
+ */
+public class PriorityExecutor implements Executor, AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PriorityExecutor.class);
+
+    private static final ActionPriority[] PRIORITIES = ActionPriority.values();
+
+    private final ArrayDeque<QueuedTask>[] queues;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition taskAvailable = this.lock.newCondition();
+    private final long maxWaitNanos;
+    private final LongSupplier nanoClock;
+    private volatile boolean shutdown;
+
+    /**
+     * @param maxWait time after which a waiting task is run first, regardless of its priority
+     * @param nanoClock source of the time, which tasks have been waiting for
+     */
+    @SuppressWarnings("unchecked")
+    private PriorityExecutor(Duration maxWait, LongSupplier nanoClock) {
+        if(maxWait == null || maxWait.isNegative()) {
+            throw new RasaException("Maximum wait must not be negative");
+        }
+        this.maxWaitNanos = maxWait.toNanos();
+        this.nanoClock = nanoClock;
+        this.queues = new ArrayDeque[PRIORITIES.length];
+        for (int i = 0; i < this.queues.length; i++) {
+            this.queues[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Start an executor with as many workers as available processors, which lets a task wait at most 1 second
+     * before it is run regardless of its priority
+     *
+     * @return a running executor
+     */
+    public static PriorityExecutor start() {
+        return start(Runtime.getRuntime().availableProcessors(), Duration.ofSeconds(1));
+    }
+
+    /**
+     * @param workerCount number of workers (threads)
+     * @param maxWait time after which a waiting task is run first, regardless of its priority
+     * @return a running executor
+     */
+    public static PriorityExecutor start(int workerCount, Duration maxWait) {
+        return start(workerCount, maxWait, "rasa-priority-");
+    }
+
+    /**
+     * @param workerCount number of workers (threads)
+     * @param maxWait time after which a waiting task is run first, regardless of its priority
+     * @param threadNamePrefix a prefix of names of the worker threads
+     * @return a running executor
+     */
+    public static PriorityExecutor start(int workerCount, Duration maxWait, String threadNamePrefix) {
+        return start(workerCount, maxWait, threadNamePrefix, System::nanoTime);
+    }
+
+    static PriorityExecutor start(int workerCount, Duration maxWait, String threadNamePrefix, LongSupplier nanoClock) {
+        if(workerCount <= 0) {
+            throw new RasaException("Number of workers must be positive");
+        }
+        // the workers are started once the executor is fully constructed
+        PriorityExecutor executor = new PriorityExecutor(maxWait, nanoClock);
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(executor::work, threadNamePrefix + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        return executor;
+    }
+
+    /**
+     * Queue the task with the given priority
+     *
+     * @param priority a priority of the task. A task without a priority is queued as {@link ActionPriority#NORMAL}
+     * @param task a task
+     */
+    public void execute(ActionPriority priority, Runnable task) {
+        QueuedTask queuedTask = new QueuedTask(task, this.nanoClock.getAsLong());
+        this.lock.lock();
+        try {
+            if(this.shutdown) {
+                throw new RejectedExecutionException("The executor has been shut down");
+            }
+            this.queues[(priority != null ? priority : ActionPriority.NORMAL).ordinal()].addLast(queuedTask);
+            this.taskAvailable.signal();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Queue the task with {@link ActionPriority#NORMAL} priority
+     *
+     * @param task a task
+     */
+    @Override
+    public void execute(Runnable task) {
+        execute(ActionPriority.NORMAL, task);
+    }
+
+    /**
+     * @param priority a priority
+     * @return number of tasks of the given priority waiting for a worker
+     */
+    public int getQueuedTasks(ActionPriority priority) {
+        this.lock.lock();
+        try {
+            return this.queues[priority.ordinal()].size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Shut down all workers. Already queued tasks are still run.
+     */
+    @Override
+    public void close() {
+        this.lock.lock();
+        try {
+            this.shutdown = true;
+            this.taskAvailable.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void work() {
+        Runnable task;
+        while ((task = take()) != null) {
+            try {
+                task.run();
+            } catch (Throwable e) {
+                // the worker keeps running, so the executor does not lose its workers one by one
+                LOGGER.error("A task has failed", e);
+            }
+        }
+    }
+
+    /**
+     * @return the next task to run, or <code>null</code> if the executor has been shut down and there are no queued tasks
+     */
+    private Runnable take() {
+        this.lock.lock();
+        try {
+            while (true) {
+                QueuedTask task = poll();
+                if(task != null) {
+                    return task.task;
+                }
+                if(this.shutdown) {
+                    return null;
+                }
+                this.taskAvailable.awaitUninterruptibly();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private QueuedTask poll() {
+        // starvation protection: the oldest of the lower priority tasks which have been waiting too long goes first
+        long now = this.nanoClock.getAsLong();
+        ArrayDeque<QueuedTask> starved = null;
+        for (int i = 1; i < this.queues.length; i++) {
+            QueuedTask head = this.queues[i].peekFirst();
+            if(head != null && now - head.queuedNanos > this.maxWaitNanos
+                    && (starved == null || head.queuedNanos - starved.peekFirst().queuedNanos < 0)) {
+                starved = this.queues[i];
+            }
+        }
+        if(starved != null) {
+            return starved.pollFirst();
+        }
+        for (ArrayDeque<QueuedTask> queue : this.queues) {
+            if(queue.isEmpty() == false) {
+                return queue.pollFirst();
+            }
+        }
+        return null;
+    }
+
+    //=================================================
+    // Inner Types
+    //=================================================
+
+    private static final class QueuedTask {
+        private final Runnable task;
+        private final long queuedNanos;
+
+        private QueuedTask(Runnable task, long queuedNanos) {
+            this.task = task;
+            this.queuedNanos = queuedNanos;
+        }
+    }
+}
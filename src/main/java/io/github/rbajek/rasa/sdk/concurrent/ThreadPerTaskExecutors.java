@@ -0,0 +1,65 @@
+package io.github.rbajek.rasa.sdk.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Factory of executors which run every task on its own thread.</p>
+ *
+ * <p>This is the Java 8 implementation, which uses platform threads (idle threads are reused).
+ * On Java 21+ the multi-release JAR provides an implementation which runs every task on a new virtual thread,
+ * so actions blocking on I/O do not tie up platform threads.</p>
+ *
+ * @author Rafał Bajek
+ */
+public final class ThreadPerTaskExecutors {
+
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    private ThreadPerTaskExecutors() {
+    }
+
+    /**
+     * @return <code>true</code> - if the executors created by this factory use virtual threads. Otherwise - <code>false</code>
+     */
+    public static boolean isVirtualThreadSupported() {
+        return false;
+    }
+
+    /**
+     * Create an executor which runs every task on its own thread. It can be used to run actions
+     * (see {@link io.github.rbajek.rasa.sdk.ActionExecutor#ActionExecutor(java.util.concurrent.Executor)})
+     * as well as to handle HTTP requests of an embedded server (thread-per-request).
+     *
+     * @param threadNamePrefix a prefix of names of the created threads
+     * @return a new executor
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String threadNamePrefix) {
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new DaemonThreadFactory(threadNamePrefix));
+    }
+
+    //=================================================
+    // Inner Types
+    //=================================================
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final String threadNamePrefix;
+        private final AtomicLong threadCounter = new AtomicLong();
+
+        private DaemonThreadFactory(String threadNamePrefix) {
+            this.threadNamePrefix = threadNamePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, this.threadNamePrefix + this.threadCounter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
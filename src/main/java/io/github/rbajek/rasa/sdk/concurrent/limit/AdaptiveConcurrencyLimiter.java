@@ -0,0 +1,78 @@
+package io.github.rbajek.rasa.sdk.concurrent.limit;
+
+import io.github.rbajek.rasa.sdk.exception.ConcurrencyLimitExceededException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Limits number of requests in flight by a limit, which adapts to the measured latency (see {@link LimitAlgorithm}).</p>
+ *
+ * <p>Requests over the limit are shed immediately, instead of queueing up until they time out on the Rasa side.</p>
+ *
+ * @author Rafał Bajek
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final LimitAlgorithm algorithm;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public AdaptiveConcurrencyLimiter(LimitAlgorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    //=================================================
+    // Class methods
+    //=================================================
+
+    /**
+     * Acquire a permit for a request. Every acquired permit has to be released by one of
+     * {@link #onSuccess(long, int)}, {@link #onDropped()} or {@link #onIgnored()}.
+     *
+     * @return number of requests in flight including this one (needed by {@link #onSuccess(long, int)})
+     * @throws ConcurrencyLimitExceededException if the limit is reached
+     */
+    public int acquire() {
+        int current;
+        do {
+            current = this.inFlight.get();
+            if(current >= this.algorithm.getLimit()) {
+                throw new ConcurrencyLimitExceededException("Concurrency limit of " + this.algorithm.getLimit() + " requests has been reached");
+            }
+        } while (this.inFlight.compareAndSet(current, current + 1) == false);
+        return current + 1;
+    }
+
+    /**
+     * Release a permit of a request which finished successfully
+     *
+     * @param latencyNanos latency of the request
+     * @param inFlight number of requests in flight returned by {@link #acquire()}
+     */
+    public void onSuccess(long latencyNanos, int inFlight) {
+        this.inFlight.decrementAndGet();
+        this.algorithm.onSample(latencyNanos, inFlight, false);
+    }
+
+    /**
+     * Release a permit of a request which was dropped (e.g. timed out)
+     */
+    public void onDropped() {
+        this.inFlight.decrementAndGet();
+        this.algorithm.onSample(0L, 0, true);
+    }
+
+    /**
+     * Release a permit of a request which failed for a reason unrelated to the load (e.g. invalid request)
+     */
+    public void onIgnored() {
+        this.inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return this.algorithm.getLimit();
+    }
+
+    public int getInFlight() {
+        return this.inFlight.get();
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.rbajek.rasa.sdk.concurrent.limit;
+
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+
+import java.time.Duration;
+
+/**
+ * <p>Additive increase / multiplicative decrease limit (like TCP congestion control).</p>
+ *
+ * <p>The limit grows by one after each successful call made under load, and is multiplied by the backoff
+ * ratio when a call is dropped or slower than the timeout.</p>
+ *
+ * @author Rafał Bajek
+ */
+public class AimdLimit implements LimitAlgorithm {
+
+    private int minLimit = 1;
+    private int maxLimit = 200;
+    private double backoffRatio = 0.9;
+    private long timeoutNanos = Duration.ofSeconds(5).toNanos();
+
+    private volatile int limit = 20;
+
+    private AimdLimit() {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public int getLimit() {
+        return this.limit;
+    }
+
+    @Override
+    public synchronized void onSample(long latencyNanos, int inFlight, boolean dropped) {
+        int currentLimit = this.limit;
+        if(dropped || latencyNanos > this.timeoutNanos) {
+            this.limit = Math.max(this.minLimit, (int) (currentLimit * this.backoffRatio));
+        } else if(inFlight * 2 >= currentLimit) {
+            // grow only when the limit is actually used
+            this.limit = Math.min(this.maxLimit, currentLimit + 1);
+        }
+    }
+
+    //=================================================
+    // Builder
+    //=================================================
+
+    public static class Builder {
+        private final AimdLimit instance = new AimdLimit();
+
+        public Builder initialLimit(int initialLimit) {
+            this.instance.limit = initialLimit;
+            return this;
+        }
+
+        public Builder minLimit(int minLimit) {
+            this.instance.minLimit = minLimit;
+            return this;
+        }
+
+        public Builder maxLimit(int maxLimit) {
+            this.instance.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * @param backoffRatio ratio (between 0.5 and 1) by which the limit is multiplied when a call is dropped
+         * @return this builder
+         */
+        public Builder backoffRatio(double backoffRatio) {
+            this.instance.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * @param timeout latency above which a call is treated as dropped
+         * @return this builder
+         */
+        public Builder timeout(Duration timeout) {
+            this.instance.timeoutNanos = timeout.toNanos();
+            return this;
+        }
+
+        public AimdLimit build() {
+            if(this.instance.minLimit <= 0 || this.instance.minLimit > this.instance.maxLimit) {
+                throw new RasaException("Invalid limits: minLimit=" + this.instance.minLimit + ", maxLimit=" + this.instance.maxLimit);
+            }
+            if(this.instance.backoffRatio < 0.5 || this.instance.backoffRatio >= 1.0) {
+                throw new RasaException("Backoff ratio must be between 0.5 and 1");
+            }
+            this.instance.limit = Math.max(this.instance.minLimit, Math.min(this.instance.maxLimit, this.instance.limit));
+            return this.instance;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.rbajek.rasa.sdk.concurrent.limit;
+
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+
+/**
+ * <p>Gradient limit (in the style of TCP Vegas).</p>
+ *
+ * <p>The limit follows the ratio between the long-term (baseline) latency and the latency of the recent calls:
+ * when calls get slower than the baseline, requests are queueing somewhere (e.g. in a backend), so the limit
+ * shrinks; while latency stays at the baseline, the limit grows by a small queue allowance
+ * (square root of the limit).</p>
+ *
+ * @author Rafał Bajek
+ */
+public class GradientLimit implements LimitAlgorithm {
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private int minLimit = 1;
+    private int maxLimit = 200;
+    private double smoothing = 0.2;
+    private double rttTolerance = 1.5;
+    private int longWindow = 600;
+
+    private volatile int limit = 20;
+
+    /**
+     * Exponential moving averages of latency (guarded by this)
+     */
+    private double estimatedLimit;
+    private double longRtt;
+    private double shortRtt;
+
+    private GradientLimit() {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public int getLimit() {
+        return this.limit;
+    }
+
+    @Override
+    public synchronized void onSample(long latencyNanos, int inFlight, boolean dropped) {
+        if(dropped) {
+            this.estimatedLimit = Math.max(this.minLimit, this.estimatedLimit * MIN_GRADIENT);
+            this.limit = (int) this.estimatedLimit;
+            return;
+        }
+        if(this.longRtt == 0) {
+            this.longRtt = latencyNanos;
+            this.shortRtt = latencyNanos;
+        }
+        this.longRtt += (latencyNanos - this.longRtt) * 2.0 / (this.longWindow + 1);
+        this.shortRtt += (latencyNanos - this.shortRtt) * 0.5;
+
+        // do not grow the limit when it is not used
+        if(inFlight * 2 < this.estimatedLimit) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, this.rttTolerance * this.longRtt / this.shortRtt));
+        double newLimit = this.estimatedLimit * gradient + Math.sqrt(this.estimatedLimit);
+        newLimit = this.estimatedLimit * (1 - this.smoothing) + newLimit * this.smoothing;
+        this.estimatedLimit = Math.max(this.minLimit, Math.min(this.maxLimit, newLimit));
+        this.limit = (int) this.estimatedLimit;
+    }
+
+    //=================================================
+    // Builder
+    //=================================================
+
+    public static class Builder {
+        private final GradientLimit instance = new GradientLimit();
+
+        public Builder initialLimit(int initialLimit) {
+            this.instance.limit = initialLimit;
+            return this;
+        }
+
+        public Builder minLimit(int minLimit) {
+            this.instance.minLimit = minLimit;
+            return this;
+        }
+
+        public Builder maxLimit(int maxLimit) {
+            this.instance.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * @param smoothing weight (between 0 and 1) of a new limit estimate
+         * @return this builder
+         */
+        public Builder smoothing(double smoothing) {
+            this.instance.smoothing = smoothing;
+            return this;
+        }
+
+        /**
+         * @param rttTolerance how much slower than the baseline the recent calls can be before the limit shrinks
+         * @return this builder
+         */
+        public Builder rttTolerance(double rttTolerance) {
+            this.instance.rttTolerance = rttTolerance;
+            return this;
+        }
+
+        /**
+         * @param longWindow number of samples of the baseline latency average
+         * @return this builder
+         */
+        public Builder longWindow(int longWindow) {
+            this.instance.longWindow = longWindow;
+            return this;
+        }
+
+        public GradientLimit build() {
+            if(this.instance.minLimit <= 0 || this.instance.minLimit > this.instance.maxLimit) {
+                throw new RasaException("Invalid limits: minLimit=" + this.instance.minLimit + ", maxLimit=" + this.instance.maxLimit);
+            }
+            if(this.instance.smoothing <= 0 || this.instance.smoothing > 1 || this.instance.rttTolerance < 1 || this.instance.longWindow <= 0) {
+                throw new RasaException("Invalid parameters of the gradient limit");
+            }
+            this.instance.limit = Math.max(this.instance.minLimit, Math.min(this.instance.maxLimit, this.instance.limit));
+            this.instance.estimatedLimit = this.instance.limit;
+            return this.instance;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.rbajek.rasa.sdk.concurrent.limit;
+
+/**
+ * Algorithm which adjusts the concurrency limit based on measured latency of calls
+ *
+ * @author Rafał Bajek
+ */
+public interface LimitAlgorithm {
+
+    /**
+     * @return current concurrency limit
+     */
+    int getLimit();
+
+    /**
+     * Update the limit by a sample of a finished call
+     *
+     * @param latencyNanos latency of the call in nanoseconds
+     * @param inFlight number of calls in flight when the call was started
+     * @param dropped <code>true</code> - if the call was dropped (e.g. timed out). Otherwise - <code>false</code>
+     */
+    void onSample(long latencyNanos, int inFlight, boolean dropped);
+}
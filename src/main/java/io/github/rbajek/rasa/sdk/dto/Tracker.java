@@ -1,6 +1,8 @@
 package io.github.rbajek.rasa.sdk.dto;
 
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
 import io.github.rbajek.rasa.sdk.util.StringUtils;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import lombok.Setter;
@@ -8,7 +10,9 @@ import lombok.ToString;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -78,6 +82,46 @@ public class Tracker {
         this.slots.put(slotName, value);
     }
 
+    /**
+     * Iterate over the events from the newest one to the oldest one. When the events are decoded lazily
+     * (see {@link io.github.rbajek.rasa.sdk.codec.JsonActionCodec.Builder#lazyEvents(boolean)}), only the visited events are decoded.
+     *
+     * @return events from the newest one
+     */
+    public Iterable<Event> newestEventsFirst() {
+        List<Event> trackerEvents = this.events != null ? this.events : Collections.emptyList();
+        return () -> new Iterator<Event>() {
+            private final ListIterator<Event> iterator = trackerEvents.listIterator(trackerEvents.size());
+
+            @Override
+            public boolean hasNext() {
+                return this.iterator.hasPrevious();
+            }
+
+            @Override
+            public Event next() {
+                return this.iterator.previous();
+            }
+        };
+    }
+
+    /**
+     * Find the newest event of the given type (see {@link Event#getTypedEvent()}), e.g. the latest message of the user:
+     * <code>tracker.getLatestEvent(UserUttered.class)</code>
+     *
+     * @param type a type of the event
+     * @param <T> type of the event
+     * @return the newest event of the given type, or <code>null</code> if there is no such event
+     */
+    public <T extends AbstractEvent> T getLatestEvent(Class<T> type) {
+        for (Event trackerEvent : newestEventsFirst()) {
+            if(trackerEvent != null && type.isInstance(trackerEvent.getTypedEvent())) {
+                return type.cast(trackerEvent.getTypedEvent());
+            }
+        }
+        return null;
+    }
+
     public Map<String, Object> getSlots() {
         return this.slots != null ? this.slots : Collections.emptyMap();
     }
@@ -125,6 +169,14 @@ public class Tracker {
     public static class Event {
         private String event;
         private Long timestamp;
+
+        /**
+         * The event decoded into its own type (e.g. {@link io.github.rbajek.rasa.sdk.dto.event.UserUttered}),
+         * or <code>null</code> if the type is unknown or the event has not been decoded by
+         * {@link io.github.rbajek.rasa.sdk.codec.JsonActionCodec}
+         */
+        @JsonIgnore
+        private AbstractEvent typedEvent;
     }
 
     @Getter @Setter @ToString
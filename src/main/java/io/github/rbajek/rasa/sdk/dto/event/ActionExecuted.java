@@ -1,7 +1,10 @@
 package io.github.rbajek.rasa.sdk.dto.event;
 
+import lombok.Getter;
+
 import java.sql.Timestamp;
 
+@Getter
 public class ActionExecuted extends AbstractEvent {
 
     //-----------------------------------------------
@@ -24,6 +24,6 @@ public class ActionExecutionRejected extends AbstractEvent {
     }
 
     public ActionExecutionRejected(Timestamp timestamp) {
-        super("form_validation", timestamp);
+        super("action_execution_rejected", timestamp);
     }
 }
@@ -23,6 +23,13 @@ public class Form extends AbstractEvent {
     // Constructors
     //-----------------------------------------------
 
+    /**
+     * Used when the event is decoded from a tracker
+     */
+    private Form() {
+        this(null, null);
+    }
+
     public Form(String name) {
         this(name, null);
     }
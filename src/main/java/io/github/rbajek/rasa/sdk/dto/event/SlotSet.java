@@ -22,6 +22,13 @@ public class SlotSet extends AbstractEvent {
     // Constructors
     //-----------------------------------------------
 
+    /**
+     * Used when the event is decoded from a tracker
+     */
+    private SlotSet() {
+        this(null, null, null);
+    }
+
     public SlotSet(String name, Object value) {
         this(name, value, null);
     }
@@ -0,0 +1,13 @@
+package io.github.rbajek.rasa.sdk.exception;
+
+/**
+ * Thrown when an action exceeds its deadline and no fallback response is configured
+ *
+ * @author Rafał Bajek
+ */
+public class ActionTimeoutException extends RasaException {
+
+    public ActionTimeoutException(String message) {
+        super(message);
+    }
+}
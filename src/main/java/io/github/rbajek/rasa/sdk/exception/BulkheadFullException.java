@@ -0,0 +1,15 @@
+package io.github.rbajek.rasa.sdk.exception;
+
+/**
+ * Thrown when an action has reached its limit of concurrent and queued calls.
+ * Like any {@link ActionExecutionRejectionException}, it should be returned to Rasa as a rejection
+ * of the action, so other policies can predict another action.
+ *
+ * @author Rafał Bajek
+ */
+public class BulkheadFullException extends ActionExecutionRejectionException {
+
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+}
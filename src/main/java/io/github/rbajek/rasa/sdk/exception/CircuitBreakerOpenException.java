@@ -0,0 +1,15 @@
+package io.github.rbajek.rasa.sdk.exception;
+
+/**
+ * Thrown when the circuit breaker of an action is open and no fallback response is configured.
+ * Like any {@link ActionExecutionRejectionException}, it should be returned to Rasa as a rejection
+ * of the action, so other policies can predict another action.
+ *
+ * @author Rafał Bajek
+ */
+public class CircuitBreakerOpenException extends ActionExecutionRejectionException {
+
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+}
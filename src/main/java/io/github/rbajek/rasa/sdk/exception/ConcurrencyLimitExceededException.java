@@ -0,0 +1,14 @@
+package io.github.rbajek.rasa.sdk.exception;
+
+/**
+ * Thrown when a request is shed, because the action server has reached its concurrency limit.
+ * It should be returned to Rasa as a temporary failure (e.g. HTTP 503).
+ *
+ * @author Rafał Bajek
+ */
+public class ConcurrencyLimitExceededException extends RasaException {
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.rbajek.rasa.sdk.util;
+
+import io.github.rbajek.rasa.sdk.ActionContext;
+import io.github.rbajek.rasa.sdk.exception.ActionTimeoutException;
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class FutureUtils {
+
+    /**
+     * Wait for the result of the given stage. Runtime exceptions which completed the stage are rethrown as they are
+     * (not wrapped by {@link CompletionException})
+     *
+     * @param stage a completion stage
+     * @param <T> type of the result
+     * @return the result of the stage
+     */
+    public static <T> T join(CompletionStage<T> stage) {
+        try {
+            return stage.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            throw asRuntimeException(unwrap(e));
+        }
+    }
+
+    /**
+     * Wait for the result of the given stage of an action. Unlike {@link #join(CompletionStage)}, the wait stops
+     * when the waiting thread is interrupted (e.g. when the deadline of the action passes), and then the stage is cancelled
+     *
+     * @param stage a completion stage
+     * @param <T> type of the result
+     * @return the result of the stage
+     */
+    public static <T> T await(CompletionStage<T> stage) {
+        return await(stage, ActionContext.withoutDeadline());
+    }
+
+    /**
+     * Wait for the result of the given stage of an action, at most until the deadline of the action.
+     * When the deadline passes or the waiting thread is interrupted, the stage is cancelled
+     *
+     * @param stage a completion stage
+     * @param context the context of the action
+     * @param <T> type of the result
+     * @return the result of the stage
+     * @throws ActionTimeoutException if the deadline has passed
+     */
+    public static <T> T await(CompletionStage<T> stage, ActionContext context) {
+        CompletableFuture<T> future = stage.toCompletableFuture();
+        try {
+            return context.hasDeadline()
+                    ? future.get(Math.max(context.getRemainingNanos(), 0), TimeUnit.NANOSECONDS)
+                    : future.get();
+        } catch (ExecutionException e) {
+            throw asRuntimeException(unwrap(e));
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ActionTimeoutException("The action has exceeded its deadline");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RasaException(e);
+        }
+    }
+
+    /**
+     * Unwrap the exception thrown by (or passed to) a completion stage
+     *
+     * @param throwable an exception
+     * @return the original cause of the exception
+     */
+    public static Throwable unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    public static RuntimeException asRuntimeException(Throwable throwable) {
+        if(throwable instanceof RuntimeException) {
+            return (RuntimeException) throwable;
+        }
+        if(throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+        return new RasaException(throwable);
+    }
+}
@@ -1,27 +1,31 @@
 package io.github.rbajek.rasa.sdk.util;
 
+import io.github.rbajek.rasa.sdk.codec.JsonBindings;
 import io.github.rbajek.rasa.sdk.exception.RasaException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.*;
 
 public class SerializationUtils {
 
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
-
     /**
-     * Clone deep using JSON serialization
+     * Clone deep using JSON serialization (see {@link JsonBindings#copy(Object)})
      *
      * @param object an object which should be cloned
      * @param <T> type of the object which should be cloned
      * @return the cloned object
      */
     public static <T> T deepClone(final T object) {
-        try {
-            return (T) OBJECT_MAPPER.readValue(OBJECT_MAPPER.writeValueAsString(object), object.getClass());
-        } catch (IOException e) {
-            throw new RasaException(e);
-        }
+        return JsonBindings.shared().copy(object);
+    }
+
+    /**
+     * Serialize an object to JSON
+     *
+     * @param object an object which should be serialized
+     * @return UTF-8 encoded JSON
+     */
+    public static byte[] toJsonBytes(final Object object) {
+        return JsonBindings.shared().write(object);
     }
 
     /**
@@ -0,0 +1,37 @@
+package io.github.rbajek.rasa.sdk.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <p>Factory of executors which run every task on its own thread.</p>
+ *
+ * <p>This is the Java 21+ implementation (part of the multi-release JAR), which runs every task
+ * on a new virtual thread, so actions blocking on I/O do not tie up platform threads.</p>
+ *
+ * @author Rafał Bajek
+ */
+public final class ThreadPerTaskExecutors {
+
+    private ThreadPerTaskExecutors() {
+    }
+
+    /**
+     * @return <code>true</code> - if the executors created by this factory use virtual threads. Otherwise - <code>false</code>
+     */
+    public static boolean isVirtualThreadSupported() {
+        return true;
+    }
+
+    /**
+     * Create an executor which runs every task on its own virtual thread. It can be used to run actions
+     * (see {@link io.github.rbajek.rasa.sdk.ActionExecutor#ActionExecutor(java.util.concurrent.Executor)})
+     * as well as to handle HTTP requests of an embedded server (thread-per-request).
+     *
+     * @param threadNamePrefix a prefix of names of the created threads
+     * @return a new executor
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String threadNamePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+    }
+}
@@ -1,19 +1,42 @@
 package io.github.rbajek.rasa.sdk;
 
 import io.github.rbajek.rasa.sdk.action.Action;
+import io.github.rbajek.rasa.sdk.action.AsyncAction;
+import io.github.rbajek.rasa.sdk.action.StreamingAction;
+import io.github.rbajek.rasa.sdk.codec.ActionCodec;
 import io.github.rbajek.rasa.sdk.dto.ActionRequest;
 import io.github.rbajek.rasa.sdk.dto.ActionResponse;
 import io.github.rbajek.rasa.sdk.dto.Domain;
 import io.github.rbajek.rasa.sdk.dto.Tracker;
 import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
 import io.github.rbajek.rasa.sdk.dto.event.SlotSet;
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+import io.github.rbajek.rasa.sdk.repository.databuilder.action.NamedAction;
+import io.github.rbajek.rasa.sdk.repository.databuilder.tracker.TrackerBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
+import static io.github.rbajek.rasa.sdk.ActionRequests.actionRequest;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ActionExecutorTest {
@@ -33,6 +56,201 @@ class ActionExecutorTest {
         Assertions.assertEquals(new SlotSet("test", "test"), events.getEvents().get(0));
     }
 
+    @Test
+    void runAsync() throws Exception {
+        ExecutorService executorService = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "action-thread"));
+        try {
+            ActionExecutor executor = new ActionExecutor(executorService);
+            executor.registerAction(new CustomAction() {
+                @Override
+                public String someCommonFeature() {
+                    return Thread.currentThread().getName();
+                }
+            });
+
+            ActionRequest actionRequest = actionRequest(ACTION_NAME);
+            ActionResponse response = executor.runAsync(actionRequest).get(5, TimeUnit.SECONDS);
+            assertEquals(Collections.singletonList(new SlotSet("test", "action-thread")), response.getEvents());
+
+            actionRequest.setNextAction("unknown_action");
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> executor.runAsync(actionRequest).get(5, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof RasaException);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void runAsyncAction() throws Exception {
+        CompletableFuture<List<AbstractEvent>> backendResult = new CompletableFuture<>();
+        ActionExecutor executor = new ActionExecutor(Runnable::run);
+        executor.registerAction(new AsyncAction() {
+            @Override
+            public String name() {
+                return ACTION_NAME;
+            }
+
+            @Override
+            public CompletionStage<List<AbstractEvent>> runAsync(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+                return backendResult.thenApply(events -> {
+                    dispatcher.utterMessage("done");
+                    return events;
+                });
+            }
+        });
+
+        CompletableFuture<ActionResponse> response = executor.runAsync(actionRequest(ACTION_NAME));
+        assertFalse(response.isDone());
+
+        backendResult.complete(new ArrayList<>(Collections.singletonList(new SlotSet("test", "test"))));
+        assertEquals(Collections.singletonList(new SlotSet("test", "test")), response.get(5, TimeUnit.SECONDS).getEvents());
+        assertEquals("done", response.get().getResponses().get(0).get("text"));
+    }
+
+    @Test
+    void runBatch() {
+        ActionExecutor executor = new ActionExecutor();
+        executor.registerAction(new CustomAction() {
+            @Override
+            public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+                dispatcher.utterMessage(tracker.getSenderId());
+                return super.run(dispatcher, tracker, domain);
+            }
+        });
+
+        List<ActionRequest> actionRequests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ActionRequest actionRequest = actionRequest(i == 50 ? "unknown_action" : ACTION_NAME);
+            actionRequest.setTracker(TrackerBuilder.builder().senderId("sender_" + i).build());
+            actionRequests.add(actionRequest);
+        }
+
+        List<BatchResult> results = executor.runBatch(actionRequests);
+        assertEquals(actionRequests.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            BatchResult result = results.get(i);
+            assertEquals(actionRequests.get(i), result.getRequest());
+            if(i == 50) {
+                assertFalse(result.isSuccess());
+                assertTrue(result.getError() instanceof RasaException);
+            } else {
+                assertTrue(result.isSuccess());
+                assertEquals("sender_" + i, result.getResponse().getResponses().get(0).get("text"));
+            }
+        }
+    }
+
+    @Test
+    void warmUp() {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger sideEffects = new AtomicInteger();
+        ActionExecutor executor = new ActionExecutor();
+        executor.registerAction(new NamedAction("action_warm") {
+            @Override
+            public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain, ActionContext context) {
+                calls.incrementAndGet();
+                if(context.isWarmUp() == false) {
+                    sideEffects.incrementAndGet();
+                }
+                dispatcher.utterMessage("warm");
+                return super.run(dispatcher, tracker, domain, context);
+            }
+        });
+        executor.registerAction(new NamedAction("action_failing") {
+            @Override
+            public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+                throw new IllegalStateException("Unexpected tracker");
+            }
+        });
+        // not ready before any warm-up
+        assertFalse(executor.isReady());
+        executor.warmUp();
+        assertTrue(executor.isReady());
+        assertEquals(1, executor.getCompletedWarmUpIterations());
+        assertEquals(1, calls.get());
+
+        executor.setWarmUpIterations(3);
+        assertFalse(executor.isReady());
+        executor.warmUp();
+        assertTrue(executor.isReady());
+        assertEquals(3, executor.getCompletedWarmUpIterations());
+        assertEquals(3, calls.get());
+        assertEquals(0, sideEffects.get());
+        assertThrows(RasaException.class, () -> executor.setWarmUpIterations(0));
+
+        executor.run(actionRequest("action_warm"));
+        assertEquals(1, sideEffects.get());
+    }
+
+    @Test
+    void runWithImmutableEvents() {
+        ActionExecutor executor = new ActionExecutor();
+        executor.registerAction(new NamedAction("action_reset") {
+            @Override
+            public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+                dispatcher.utterMessage("reset");
+                // an immutable list with an event, which has to be removed
+                return Collections.unmodifiableList(Arrays.asList(new SlotSet("a", null), new AbstractEvent(null, null) {}, new SlotSet("b", null)));
+            }
+        });
+
+        ActionResponse actionResponse = executor.run(actionRequest("action_reset"));
+        assertEquals(Arrays.asList(new SlotSet("a", null), new SlotSet("b", null)), actionResponse.getEvents());
+        assertEquals("reset", actionResponse.getResponses().get(0).get("text"));
+    }
+
+    @Test
+    void runEncodedStreaming() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        AtomicInteger writtenWhileRunning = new AtomicInteger();
+        ActionExecutor executor = new ActionExecutor();
+        executor.registerAction(new StreamingAction() {
+            @Override
+            public String name() {
+                return "action_reset_all";
+            }
+
+            @Override
+            public void run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain, ActionContext context, Consumer<AbstractEvent> events) {
+                dispatcher.utterMessage("reset");
+                events.accept(new AbstractEvent(null, null) {});
+                for (int i = 0; i < 1000; i++) {
+                    events.accept(new SlotSet("slot_" + i, null));
+                }
+                // the events have overflowed the buffer of the generator, so they are already in the stream
+                writtenWhileRunning.set(outputStream.size());
+            }
+        });
+
+        executor.runEncoded(actionRequest("action_reset_all"), ActionCodec.json(), outputStream);
+        assertTrue(writtenWhileRunning.get() > 0);
+
+        JsonNode response = new ObjectMapper().readTree(outputStream.toByteArray());
+        assertEquals(1000, response.get("events").size());
+        assertEquals("slot_999", response.get("events").get(999).get("name").asText());
+        assertEquals("reset", response.get("responses").get(0).get("text").asText());
+
+        // a response without an action is written whole
+        outputStream.reset();
+        executor.runEncoded(actionRequest(null), ActionCodec.json(), outputStream);
+        assertEquals("null", outputStream.toString("UTF-8"));
+    }
+
+    @Test
+    void replaceAndUnregisterActions() {
+        ActionExecutor executor = new ActionExecutor();
+        executor.registerAction(new CustomAction());
+        assertEquals(Collections.singletonList(ACTION_NAME), executor.getRegisteredActionNames());
+
+        executor.replaceActions(Arrays.asList(new NamedAction("action_a"), new NamedAction("action_b")));
+        assertEquals(new HashSet<>(Arrays.asList("action_a", "action_b")), new HashSet<>(executor.getRegisteredActionNames()));
+
+        executor.unregisterActions(Arrays.asList("action_a", "action_b"));
+        assertTrue(executor.getRegisteredActionNames().isEmpty());
+
+        assertThrows(RasaException.class, () -> executor.run(actionRequest(ACTION_NAME)));
+    }
+
     private static class CustomAction implements Action {
 
         @Override
@@ -49,4 +267,4 @@ class ActionExecutorTest {
             return Arrays.asList(new SlotSet("test", someCommonFeature()));
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+package io.github.rbajek.rasa.sdk;
+
+import io.github.rbajek.rasa.sdk.dto.ActionRequest;
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+import io.github.rbajek.rasa.sdk.repository.databuilder.action.NamedAction;
+import io.github.rbajek.rasa.sdk.repository.databuilder.tracker.TrackerBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.rbajek.rasa.sdk.ActionRequests.actionRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActionInterceptorTest {
+
+    private static final String ACTION_NAME = "custom_action";
+
+    @Test
+    void runWithInterceptors() throws Exception {
+        List<String> visits = Collections.synchronizedList(new ArrayList<>());
+        ActionExecutor executor = new ActionExecutor();
+        executor.registerAction(new NamedAction(ACTION_NAME));
+        ActionInterceptor metrics = (actionRequest, chain) -> {
+            visits.add("metrics");
+            return chain.proceed(actionRequest).whenComplete((actionResponse, error) -> visits.add(error == null ? "success" : "failure"));
+        };
+        executor.addInterceptor(metrics);
+        executor.addInterceptor((actionRequest, chain) -> {
+            visits.add("auth");
+            return chain.proceed(actionRequest);
+        });
+        executor.addInterceptor(authorization());
+
+        ActionRequest actionRequest = actionRequest(ACTION_NAME);
+        actionRequest.setSenderId("sender");
+        actionRequest.setTracker(TrackerBuilder.builder().senderId("sender").build());
+        assertEquals(1, executor.run(actionRequest).getEvents().size());
+        assertEquals(1, executor.runAsync(actionRequest).get(5, TimeUnit.SECONDS).getEvents().size());
+        assertEquals(Arrays.asList("metrics", "auth", "success", "metrics", "auth", "success"), visits);
+
+        visits.clear();
+        actionRequest.setSenderId("intruder");
+        assertThrows(RasaException.class, () -> executor.run(actionRequest));
+        assertEquals(Arrays.asList("metrics", "auth", "failure"), visits);
+
+        executor.removeInterceptor(metrics);
+        assertEquals(2, executor.getInterceptors().size());
+    }
+
+    @Test
+    void runBatchWithInterceptors() {
+        AtomicInteger visits = new AtomicInteger();
+        ActionExecutor executor = new ActionExecutor();
+        executor.registerAction(new NamedAction(ACTION_NAME));
+        executor.addInterceptor((actionRequest, chain) -> {
+            visits.incrementAndGet();
+            return chain.proceed(actionRequest);
+        });
+        executor.addInterceptor(authorization());
+
+        List<ActionRequest> actionRequests = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            ActionRequest actionRequest = actionRequest(ACTION_NAME);
+            actionRequest.setSenderId(i == 20 ? "intruder" : "sender_" + i);
+            actionRequests.add(actionRequest);
+        }
+        List<BatchResult> results = executor.runBatch(actionRequests);
+        assertEquals(40, visits.get());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i != 20, results.get(i).isSuccess());
+        }
+        assertTrue(results.get(20).getError() instanceof RasaException);
+
+        // synthetic warm-up requests do not pass the interceptors
+        executor.warmUp();
+        assertEquals(40, visits.get());
+    }
+
+    private static ActionInterceptor authorization() {
+        return (actionRequest, chain) -> {
+            if("intruder".equals(actionRequest.getSenderId())) {
+                throw new RasaException("Unauthorized");
+            }
+            return chain.proceed(actionRequest);
+        };
+    }
+}
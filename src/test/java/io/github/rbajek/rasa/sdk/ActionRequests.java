@@ -0,0 +1,23 @@
+package io.github.rbajek.rasa.sdk;
+
+import io.github.rbajek.rasa.sdk.dto.ActionRequest;
+
+/**
+ * Requests for tests of the action executor, also in other packages
+ */
+public final class ActionRequests {
+
+    private ActionRequests() {
+    }
+
+    /**
+     * @param actionName a name of the requested action
+     * @return a request of the action from the supported version of Rasa
+     */
+    public static ActionRequest actionRequest(String actionName) {
+        ActionRequest actionRequest = new ActionRequest();
+        actionRequest.setNextAction(actionName);
+        actionRequest.setVersion(VersionChecker.SUPPORTED_VERSION);
+        return actionRequest;
+    }
+}
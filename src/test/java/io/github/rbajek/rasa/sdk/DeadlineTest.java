@@ -0,0 +1,127 @@
+package io.github.rbajek.rasa.sdk;
+
+import io.github.rbajek.rasa.sdk.action.AsyncAction;
+import io.github.rbajek.rasa.sdk.dto.ActionRequest;
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+import io.github.rbajek.rasa.sdk.dto.Domain;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+import io.github.rbajek.rasa.sdk.exception.ActionTimeoutException;
+import io.github.rbajek.rasa.sdk.repository.databuilder.action.NamedAction;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.github.rbajek.rasa.sdk.ActionRequests.actionRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineTest {
+
+    @Test
+    void runWithDeadline() throws Exception {
+        AtomicBoolean interrupted = new AtomicBoolean();
+        CountDownLatch never = new CountDownLatch(1);
+        ActionExecutor executor = new ActionExecutor();
+        executor.registerAction(new NamedAction("action_slow") {
+            @Override
+            public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain, ActionContext context) {
+                assertTrue(context.hasDeadline());
+                try {
+                    never.await();
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                }
+                return super.run(dispatcher, tracker, domain, context);
+            }
+        }, ActionOptions.builder().timeout(Duration.ofMillis(50)).build());
+
+        ActionResponse fallback = new ActionResponse();
+        fallback.setEvents(Collections.emptyList());
+        fallback.setResponses(Collections.singletonList(Collections.singletonMap("template", "utter_sorry")));
+
+        ActionRequest actionRequest = actionRequest("action_slow");
+
+        // without fallback the timeout is reported as an exception
+        assertThrows(ActionTimeoutException.class, () -> executor.run(actionRequest));
+        assertTrue(interrupted.getAndSet(false));
+
+        executor.setTimeoutFallback(fallback);
+        assertEquals(fallback, executor.run(actionRequest));
+        assertTrue(interrupted.getAndSet(false));
+
+        assertEquals(fallback, executor.runAsync(actionRequest).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void runAsyncActionWithDeadline() {
+        CompletableFuture<List<AbstractEvent>> backendResult = new CompletableFuture<>();
+        ActionExecutor executor = new ActionExecutor();
+        executor.registerAction(new AsyncAction() {
+            @Override
+            public String name() {
+                return "action_async";
+            }
+
+            @Override
+            public CompletionStage<List<AbstractEvent>> runAsync(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+                return backendResult;
+            }
+        }, ActionOptions.builder().timeout(Duration.ofMillis(100)).build());
+
+        ActionResponse fallback = new ActionResponse();
+        fallback.setEvents(Collections.emptyList());
+        executor.setTimeoutFallback(fallback);
+
+        // the synchronous run does not wait for the stage beyond the deadline
+        assertSame(fallback, executor.run(actionRequest("action_async")));
+        assertTrue(backendResult.isCancelled());
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    void releasePermitsOnDeadline() throws Exception {
+        List<CompletableFuture<List<AbstractEvent>>> backendResults = Collections.synchronizedList(new ArrayList<>());
+        ActionExecutor executor = new ActionExecutor();
+        executor.registerAction(new AsyncAction() {
+            @Override
+            public String name() {
+                return "action_async";
+            }
+
+            @Override
+            public CompletionStage<List<AbstractEvent>> runAsync(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+                // the backend never responds
+                CompletableFuture<List<AbstractEvent>> backendResult = new CompletableFuture<>();
+                backendResults.add(backendResult);
+                return backendResult;
+            }
+        }, ActionOptions.builder().timeout(Duration.ofMillis(50)).maxConcurrentCalls(1).build());
+
+        ActionResponse fallback = new ActionResponse();
+        fallback.setEvents(Collections.emptyList());
+        executor.setTimeoutFallback(fallback);
+
+        ActionRequest actionRequest = actionRequest("action_async");
+        assertSame(fallback, executor.runAsync(actionRequest).get(5, TimeUnit.SECONDS));
+        // the stage of the action is cancelled and the only permit of the bulkhead is returned
+        assertTrue(backendResults.get(0).isCancelled());
+        assertEquals(0, executor.getInFlightCalls("action_async"));
+
+        assertSame(fallback, executor.runAsync(actionRequest).get(5, TimeUnit.SECONDS));
+        assertSame(fallback, executor.run(actionRequest));
+        assertEquals(3, backendResults.size());
+        assertEquals(0, executor.getInFlightCalls("action_async"));
+    }
+}
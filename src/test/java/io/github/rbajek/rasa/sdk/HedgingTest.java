@@ -0,0 +1,122 @@
+package io.github.rbajek.rasa.sdk;
+
+import io.github.rbajek.rasa.sdk.dto.ActionRequest;
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+import io.github.rbajek.rasa.sdk.dto.Domain;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+import io.github.rbajek.rasa.sdk.repository.databuilder.action.NamedAction;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.rbajek.rasa.sdk.ActionRequests.actionRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgingTest {
+
+    /**
+     * Calls which have to be recorded before the hedge delay is known
+     */
+    private static final int WARM_CALLS = 16;
+
+    @Test
+    void runHedged() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch never = new CountDownLatch(1);
+        CountDownLatch slowAttemptInterrupted = new CountDownLatch(1);
+        ActionExecutor executor = ActionExecutor.threadPerTask();
+        executor.registerAction(new NamedAction("action_lookup") {
+            @Override
+            public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+                // the first attempt of the 17th call hits a backend, which does not respond
+                if(attempts.incrementAndGet() == WARM_CALLS + 1) {
+                    dispatcher.utterMessage("slow");
+                    try {
+                        never.await();
+                    } catch (InterruptedException e) {
+                        slowAttemptInterrupted.countDown();
+                        Thread.currentThread().interrupt();
+                    }
+                } else {
+                    dispatcher.utterMessage("fast");
+                }
+                return super.run(dispatcher, tracker, domain);
+            }
+        }, ActionOptions.builder().idempotent(true).build());
+
+        ActionRequest actionRequest = actionRequest("action_lookup");
+        for (int i = 0; i < WARM_CALLS; i++) {
+            executor.run(actionRequest);
+        }
+
+        ActionResponse actionResponse = executor.run(actionRequest);
+        assertEquals(WARM_CALLS + 2, attempts.get());
+        // only the winner's dispatcher is used
+        assertEquals(1, actionResponse.getResponses().size());
+        assertEquals("fast", actionResponse.getResponses().get(0).get("text"));
+        assertTrue(slowAttemptInterrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void runHedgedWithinBulkhead() {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicBoolean slowCall = new AtomicBoolean();
+        AtomicInteger slowCallTasks = new AtomicInteger();
+        CountDownLatch hedgeSkipped = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newCachedThreadPool();
+        try {
+            ActionExecutor executor = new ActionExecutor(task -> {
+                // the tasks of the slow call are its first attempt and the hedge, which is skipped for the lack of a permit
+                boolean hedge = slowCall.get() && slowCallTasks.incrementAndGet() == 2;
+                executorService.execute(() -> {
+                    task.run();
+                    if(hedge) {
+                        hedgeSkipped.countDown();
+                    }
+                });
+            });
+            executor.registerAction(new NamedAction("action_lookup") {
+                @Override
+                public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+                    maxInFlight.accumulateAndGet(executor.getInFlightCalls("action_lookup"), Math::max);
+                    if(attempts.incrementAndGet() == WARM_CALLS + 1) {
+                        await(hedgeSkipped);
+                    }
+                    return super.run(dispatcher, tracker, domain);
+                }
+            }, ActionOptions.builder().idempotent(true).maxConcurrentCalls(1).build());
+
+            ActionRequest actionRequest = actionRequest("action_lookup");
+            for (int i = 0; i < WARM_CALLS; i++) {
+                executor.run(actionRequest);
+            }
+            slowCall.set(true);
+            executor.run(actionRequest);
+
+            // the only permit of the bulkhead is used by the first attempt, so the hedged attempt is skipped
+            assertEquals(0, hedgeSkipped.getCount());
+            assertEquals(WARM_CALLS + 1, attempts.get());
+            assertEquals(1, maxInFlight.get());
+            assertEquals(0, executor.getInFlightCalls("action_lookup"));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.rbajek.rasa.sdk;
+
+import io.github.rbajek.rasa.sdk.dto.ActionRequest;
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+import io.github.rbajek.rasa.sdk.dto.Domain;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+import io.github.rbajek.rasa.sdk.repository.databuilder.action.NamedAction;
+import io.github.rbajek.rasa.sdk.repository.databuilder.tracker.TrackerBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.rbajek.rasa.sdk.ActionRequests.actionRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestCoalescingTest {
+
+    private static final String ACTION_NAME = "custom_action";
+
+    @Test
+    void runWithRequestCoalescing() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            ActionExecutor executor = new ActionExecutor(executorService);
+            executor.setRequestCoalescing(true);
+            executor.registerAction(new NamedAction(ACTION_NAME) {
+                @Override
+                public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+                    calls.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return super.run(dispatcher, tracker, domain);
+                }
+            });
+
+            ActionRequest actionRequest = conversationRequest();
+            ActionRequest retriedRequest = conversationRequest();
+
+            CompletableFuture<ActionResponse> first = executor.runAsync(actionRequest);
+            CompletableFuture<ActionResponse> retried = executor.runAsync(retriedRequest);
+            release.countDown();
+
+            assertEquals(first.get(5, TimeUnit.SECONDS), retried.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+
+            // the request is not in flight anymore, so it is run again
+            executor.run(retriedRequest);
+            assertEquals(2, calls.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static ActionRequest conversationRequest() {
+        ActionRequest actionRequest = actionRequest(ACTION_NAME);
+        actionRequest.setSenderId("sender");
+        actionRequest.setTracker(TrackerBuilder.builder().senderId("sender").addSlot("slot", "value").build());
+        return actionRequest;
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.rbajek.rasa.sdk;
+
+import io.github.rbajek.rasa.sdk.dto.ActionRequest;
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+import io.github.rbajek.rasa.sdk.dto.Domain;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+import io.github.rbajek.rasa.sdk.dto.event.SlotSet;
+import io.github.rbajek.rasa.sdk.repository.databuilder.action.NamedAction;
+import io.github.rbajek.rasa.sdk.repository.databuilder.tracker.TrackerBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.github.rbajek.rasa.sdk.ActionRequests.actionRequest;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCacheTest {
+
+    private static final String ACTION_NAME = "custom_action";
+
+    @Test
+    void runWithResponseCache() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ActionExecutor executor = new ActionExecutor();
+        executor.setResponseCache(new ResponseCache(10, Duration.ofMinutes(1)));
+        executor.registerAction(new NamedAction(ACTION_NAME) {
+            @Override
+            public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+                calls.incrementAndGet();
+                return super.run(dispatcher, tracker, domain);
+            }
+        });
+
+        ActionRequest actionRequest = actionRequest(ACTION_NAME);
+        actionRequest.setSenderId("sender");
+        actionRequest.setTracker(TrackerBuilder.builder().senderId("sender").build());
+
+        byte[] encoded = executor.runEncoded(actionRequest);
+        assertTrue(new String(encoded, StandardCharsets.UTF_8).contains("\"slot\""));
+        byte[] cachedEncoded = executor.runEncoded(actionRequest);
+        assertArrayEquals(encoded, cachedEncoded);
+        assertNotSame(encoded, cachedEncoded);
+        ActionResponse cachedResponse = executor.runAsync(actionRequest).get(5, TimeUnit.SECONDS);
+        assertEquals(1, cachedResponse.getEvents().size());
+        assertEquals(1, calls.get());
+
+        // a returned response is a copy, so changing it does not change the cached one
+        cachedResponse.getEvents().clear();
+        cachedResponse.getResponses().get(0).put("text", "changed");
+        ActionResponse retriedResponse = executor.run(actionRequest);
+        assertEquals(1, retriedResponse.getEvents().size());
+        assertNull(retriedResponse.getResponses().get(0).get("text"));
+        assertEquals(1, calls.get());
+
+        // another state of the conversation is not answered from the cache
+        actionRequest.getTracker().addSlot("slot", "value");
+        executor.run(actionRequest);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void evictExpiredAndOldestEntries() {
+        AtomicLong nanoTime = new AtomicLong();
+        ResponseCache cache = new ResponseCache(2, Duration.ofSeconds(10), nanoTime::get);
+        ActionResponse response = new ActionResponse();
+        response.setEvents(Collections.singletonList(new SlotSet("slot", "value")));
+        response.setResponses(Collections.singletonList(new HashMap<>()));
+
+        RequestFingerprint first = fingerprint("sender_1");
+        cache.put(first, response);
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        RequestFingerprint second = fingerprint("sender_2");
+        cache.put(second, response);
+        // the oldest entry is evicted, when the cache is full
+        cache.put(fingerprint("sender_3"), response);
+        assertEquals(2, cache.size());
+        assertNull(cache.get(first));
+        assertEquals(Collections.singletonList(new SlotSet("slot", "value")), cache.get(second).getResponse().getEvents());
+
+        // expired entries are removed, when a response is cached
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        cache.put(fingerprint("sender_4"), response);
+        assertEquals(1, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    private static RequestFingerprint fingerprint(String senderId) {
+        ActionRequest actionRequest = actionRequest(ACTION_NAME);
+        actionRequest.setSenderId(senderId);
+        actionRequest.setTracker(TrackerBuilder.builder().senderId(senderId).build());
+        return RequestFingerprint.of(actionRequest);
+    }
+}
@@ -16,8 +16,11 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AbstractFormActionTest {
@@ -1301,4 +1304,55 @@ class AbstractFormActionTest {
 
         assertTrue(events.size() == expectedEvents.size() && events.containsAll(expectedEvents));
     }
-}
\ No newline at end of file
+
+    /**
+     * Test asynchronous submission of a form when all required slots are filled
+     */
+    @Test
+    void asyncSubmit() {
+        CompletableFuture<List<AbstractEvent>> submitResult = new CompletableFuture<>();
+        AbstractAsyncFormAction customFormAction = new AbstractAsyncFormAction("some_form") {
+            @Override
+            protected List<String> requiredSlots(Tracker tracker) {
+                return Arrays.asList("some_slot");
+            }
+
+            @Override
+            protected CompletionStage<List<AbstractEvent>> submitAsync(CollectingDispatcher dispatcher) {
+                return submitResult;
+            }
+
+            @Override
+            protected void registerSlotsValidators(Map<String, ValidateSlot> slotValidatorMap) {
+
+            }
+        };
+
+        Tracker tracker = TrackerBuilder.builder()
+                .senderId("default")
+                .addSlot("some_slot", "some_value")
+                .latestMessage(MessageBuilder.builder()
+                        .intent("greet")
+                        .build())
+                .paused(false)
+                .activeForm(FormBuilder.builder()
+                        .name("some_form")
+                        .validate(false)
+                        .rejected(false)
+                        .build())
+                .latestActionName("some_form")
+                .build();
+
+        CompletableFuture<List<AbstractEvent>> events = customFormAction.runAsync(new CollectingDispatcher(), tracker, null).toCompletableFuture();
+        // check that the form waits for the submission
+        assertFalse(events.isDone());
+
+        submitResult.complete(Arrays.asList(new SlotSet("submitted", true)));
+        List<AbstractEvent> expectedEvents = new ArrayList<>();
+        expectedEvents.add(new SlotSet("submitted", true));
+        expectedEvents.add(new Form(null));
+        expectedEvents.add(new SlotSet("requested_slot", null));
+
+        assertEquals(expectedEvents, events.join());
+    }
+}
@@ -0,0 +1,368 @@
+package io.github.rbajek.rasa.sdk.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.rbajek.rasa.sdk.dto.ActionRequest;
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+import io.github.rbajek.rasa.sdk.dto.event.ActionExecuted;
+import io.github.rbajek.rasa.sdk.dto.event.ActionExecutionRejected;
+import io.github.rbajek.rasa.sdk.dto.event.Form;
+import io.github.rbajek.rasa.sdk.dto.event.ReminderScheduled;
+import io.github.rbajek.rasa.sdk.dto.event.Restarted;
+import io.github.rbajek.rasa.sdk.dto.event.SlotSet;
+import io.github.rbajek.rasa.sdk.dto.event.UserUttered;
+import io.github.rbajek.rasa.sdk.exception.RasaException;
+import io.github.rbajek.rasa.sdk.util.SerializationUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonActionCodecTest {
+
+    private static final String REQUEST = "{"
+            + "\"next_action\":\"action_hello\","
+            + "\"sender_id\":\"sender\","
+            + "\"unknown\":{\"nested\":[1,2,{\"a\":null}]},"
+            + "\"tracker\":{\"sender_id\":\"sender\",\"slots\":{\"name\":\"John\"},"
+            + "\"latest_message\":{\"text\":\"hi\",\"intent\":{\"name\":\"greet\",\"confidence\":0.9},\"message_id\":\"1\"},"
+            + "\"events\":[{\"event\":\"action\",\"timestamp\":1,\"name\":\"action_listen\"}]},"
+            + "\"domain\":{\"actions\":[\"action_hello\"]},"
+            + "\"version\":\"1.4.0\""
+            + "}";
+
+    @Test
+    void decode() {
+        ActionRequest actionRequest = ActionCodec.json().decode(new ByteArrayInputStream(REQUEST.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("action_hello", actionRequest.getNextAction());
+        assertEquals("sender", actionRequest.getSenderId());
+        assertEquals("1.4.0", actionRequest.getVersion());
+        assertEquals("John", actionRequest.getTracker().getSlots().get("name"));
+        assertEquals("greet", actionRequest.getTracker().getLatestMessage().getIntent().getName());
+        assertEquals("action", actionRequest.getTracker().getEvents().get(0).getEvent());
+        assertEquals(Collections.singletonList("action_hello"), actionRequest.getDomain().getActions());
+    }
+
+    @Test
+    void decodeEventsLazily() {
+        StringBuilder events = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            events.append(i > 0 ? "," : "").append("{\"event\":\"user\",\"timestamp\":").append(i).append(",\"text\":\"hi\"}");
+        }
+        String request = "{\"next_action\":\"action_hello\",\"tracker\":{\"sender_id\":\"sender\",\"events\":[" + events
+                + ",null]},\"version\":\"1.4.0\"}";
+
+        ActionRequest actionRequest = JsonActionCodec.builder().lazyEvents(true).build().decode(new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8)));
+
+        Tracker tracker = actionRequest.getTracker();
+        assertEquals("sender", tracker.getSenderId());
+        assertEquals("1.4.0", actionRequest.getVersion());
+        assertEquals(101, tracker.getEvents().size());
+        Iterator<Tracker.Event> newestEvents = tracker.newestEventsFirst().iterator();
+        assertNull(newestEvents.next());
+        assertEquals(Long.valueOf(99), newestEvents.next().getTimestamp());
+        assertEquals(Long.valueOf(98), newestEvents.next().getTimestamp());
+        assertEquals("user", tracker.getEvents().get(0).getEvent());
+        assertEquals(Long.valueOf(0), tracker.getEvents().get(0).getTimestamp());
+    }
+
+    @Test
+    void decodeTypedEvents() {
+        String request = "{\"next_action\":\"action_hello\",\"tracker\":{\"events\":["
+                + "{\"event\":\"action\",\"timestamp\":1,\"name\":\"action_listen\",\"policy\":null,\"confidence\":null},"
+                + "{\"event\":\"user\",\"timestamp\":2,\"text\":\"hi\",\"parse_data\":{\"intent\":{\"name\":\"greet\"}},\"input_channel\":\"rest\"},"
+                + "{\"event\":\"session_started\",\"timestamp\":3,\"metadata\":{\"nested\":[1,2]}},"
+                + "{\"timestamp\":4,\"name\":\"name\",\"event\":\"slot\",\"value\":\"John\"},"
+                + "{\"event\":\"reminder\",\"timestamp\":5,\"action\":\"action_remind\",\"date_time\":\"2020-03-20T12:00:00.123\"},"
+                + "{\"event\":\"action_execution_rejected\",\"name\":\"some_form\"},"
+                + "{\"event\":\"restart\"}"
+                + "]}}";
+
+        for (JsonActionCodec codec : Arrays.asList(new JsonActionCodec(), JsonActionCodec.builder().lazyEvents(true).build())) {
+            Tracker tracker = codec.decode(new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8))).getTracker();
+
+            assertEquals(7, tracker.getEvents().size());
+            assertEquals("action_listen", ((ActionExecuted) tracker.getEvents().get(0).getTypedEvent()).getName());
+            UserUttered userUttered = tracker.getLatestEvent(UserUttered.class);
+            assertEquals("hi", userUttered.getText());
+            assertEquals("greet", userUttered.getParseData().getIntent().getName());
+            assertEquals(Long.valueOf(2), userUttered.getTimestamp());
+            // unknown events are kept without their own type
+            assertEquals("session_started", tracker.getEvents().get(2).getEvent());
+            assertEquals(Long.valueOf(3), tracker.getEvents().get(2).getTimestamp());
+            assertNull(tracker.getEvents().get(2).getTypedEvent());
+            assertEquals(new SlotSet("name", "John", new Timestamp(4)), tracker.getLatestEvent(SlotSet.class));
+            assertEquals(LocalDate.of(2020, 3, 20), tracker.getLatestEvent(ReminderScheduled.class).getDate());
+            assertEquals("some_form", tracker.getLatestEvent(ActionExecutionRejected.class).getName());
+            assertEquals("restart", tracker.getLatestEvent(Restarted.class).getEvent());
+            assertNull(tracker.getLatestEvent(Form.class));
+        }
+    }
+
+    @Test
+    void copyTypedEvents() {
+        String request = "{\"next_action\":\"action_hello\",\"tracker\":{\"sender_id\":\"sender\",\"events\":["
+                + "{\"event\":\"slot\",\"timestamp\":1,\"name\":\"color\",\"value\":\"red\"},"
+                + "{\"event\":\"user\",\"timestamp\":2,\"text\":\"hi\"},"
+                + "null]}}";
+
+        for (boolean lazyEvents : new boolean[] {false, true}) {
+            JsonActionCodec codec = JsonActionCodec.builder().lazyEvents(lazyEvents).build();
+            Tracker tracker = codec.decode(new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8))).getTracker();
+
+            Tracker copy = SerializationUtils.deepClone(tracker);
+
+            assertNotSame(tracker, copy);
+            assertEquals("sender", copy.getSenderId());
+            assertEquals(3, copy.getEvents().size());
+            assertEquals(lazyEvents, copy.getEvents() instanceof LazyEventList);
+            assertEquals(new SlotSet("color", "red", new Timestamp(1)), copy.getLatestEvent(SlotSet.class));
+            assertEquals("hi", copy.getLatestEvent(UserUttered.class).getText());
+            assertNotSame(tracker.getEvents().get(0), copy.getEvents().get(0));
+            assertNull(copy.getEvents().get(2));
+            // the copy does not change the original
+            copy.getEvents().get(1).setTimestamp(3L);
+            assertEquals(Long.valueOf(2), tracker.getEvents().get(1).getTimestamp());
+            assertEquals(new SlotSet("color", "red", new Timestamp(1)), tracker.getLatestEvent(SlotSet.class));
+        }
+    }
+
+    @Test
+    void decodeCachedDomain() {
+        JsonActionCodec codec = JsonActionCodec.builder().cacheDomain(true).build();
+
+        ActionRequest first = codec.decode(new ByteArrayInputStream(REQUEST.getBytes(StandardCharsets.UTF_8)));
+        ActionRequest second = codec.decode(new ByteArrayInputStream(REQUEST.replace("\"sender\"", "\"other\"").getBytes(StandardCharsets.UTF_8)));
+        ActionRequest changed = codec.decode(new ByteArrayInputStream(REQUEST.replace("[\"action_hello\"]", "[\"action_bye\"]").getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(Collections.singletonList("action_hello"), first.getDomain().getActions());
+        assertEquals("other", second.getSenderId());
+        assertSame(first.getDomain(), second.getDomain());
+        assertNotSame(first.getDomain(), changed.getDomain());
+        assertEquals(Collections.singletonList("action_bye"), changed.getDomain().getActions());
+        assertEquals(2, codec.getCachedDomains());
+        // the shared domain cannot be modified by an action
+        assertThrows(UnsupportedOperationException.class, () -> first.getDomain().getActions().add("action_bye"));
+        assertThrows(UnsupportedOperationException.class, () -> first.getDomain().setActions(null));
+        // the rest of the request is decoded as usual
+        assertEquals("John", second.getTracker().getSlots().get("name"));
+        assertEquals("1.4.0", second.getVersion());
+    }
+
+    @Test
+    void sharedBindings() {
+        JsonBindings bindings = JsonBindings.shared();
+        assertSame(bindings.readerFor(ActionRequest.class), bindings.readerFor(ActionRequest.class));
+        assertSame(bindings.writerFor(ActionResponse.class), bindings.writerFor(ActionResponse.class));
+
+        ActionRequest actionRequest = bindings.read(REQUEST.getBytes(StandardCharsets.UTF_8), ActionRequest.class);
+        assertEquals("greet", actionRequest.getTracker().getLatestMessage().getIntent().getName());
+        // events are decoded into their own types only by the codec
+        assertEquals("action", actionRequest.getTracker().getEvents().get(0).getEvent());
+        assertNull(actionRequest.getTracker().getEvents().get(0).getTypedEvent());
+        // events without setters are bound through their fields
+        assertEquals(new SlotSet("name", "John", new Timestamp(4)),
+                bindings.read("{\"event\":\"slot\",\"timestamp\":4,\"name\":\"name\",\"value\":\"John\"}".getBytes(StandardCharsets.UTF_8), SlotSet.class));
+
+        // only the known types are cached
+        AbstractEvent anonymousEvent = new AbstractEvent("custom", null) {};
+        assertNotSame(bindings.writerFor(anonymousEvent.getClass()), bindings.writerFor(anonymousEvent.getClass()));
+        assertTrue(new String(bindings.write(anonymousEvent), StandardCharsets.UTF_8).contains("\"event\":\"custom\""));
+
+        // the Afterburner module is not on the classpath
+        assertFalse(bindings.isBytecodeAccessors());
+        assertThrows(RasaException.class, () -> JsonBindings.builder().bytecodeAccessors(true).build());
+    }
+
+    @Test
+    void binaryCodecs() {
+        ActionCodecs codecs = ActionCodecs.defaults();
+        assertSame(ActionCodec.json(), codecs.forContentType(null));
+        assertSame(ActionCodec.smile(), codecs.forContentType("application/x-jackson-smile"));
+        assertSame(ActionCodec.cbor(), codecs.forAccept("application/json;q=0.5, application/cbor"));
+        assertSame(ActionCodec.json(), codecs.forAccept("text/html, */*;q=0.1"));
+        assertThrows(RasaException.class, () -> codecs.forContentType("text/plain"));
+
+        Map<String, Object> messages = new HashMap<>();
+        messages.put("text", "Hello");
+        ActionResponse actionResponse = new ActionResponse();
+        actionResponse.setEvents(Collections.singletonList(new SlotSet("name", "John")));
+        actionResponse.setResponses(Collections.singletonList(messages));
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        ActionCodec.json().encode(actionResponse, json);
+
+        for (ActionCodec codec : Arrays.asList(ActionCodec.smile(), ActionCodec.cbor())) {
+            ByteArrayOutputStream request = new ByteArrayOutputStream();
+            codecs.convert(new ByteArrayInputStream(REQUEST.getBytes(StandardCharsets.UTF_8)), JsonActionCodec.CONTENT_TYPE, request, codec.getContentType());
+            ActionRequest actionRequest = codec.decode(new ByteArrayInputStream(request.toByteArray()));
+            assertEquals("sender", actionRequest.getSenderId());
+            assertEquals("John", actionRequest.getTracker().getSlots().get("name"));
+            assertEquals("action_listen", ((ActionExecuted) actionRequest.getTracker().getEvents().get(0).getTypedEvent()).getName());
+            assertEquals(Collections.singletonList("action_hello"), actionRequest.getDomain().getActions());
+
+            ByteArrayOutputStream response = new ByteArrayOutputStream();
+            codec.encode(actionResponse, response);
+            ByteArrayOutputStream converted = new ByteArrayOutputStream();
+            codecs.convert(new ByteArrayInputStream(response.toByteArray()), codec.getContentType(), converted, JsonActionCodec.CONTENT_TYPE);
+            assertEquals(json.toString(), converted.toString());
+        }
+    }
+
+    @Test
+    void byteBuffers() throws Exception {
+        byte[] request = REQUEST.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer heap = ByteBuffer.allocate(request.length + 10);
+        heap.position(5);
+        heap.put(request).flip().position(5);
+        ByteBuffer direct = ByteBuffer.allocateDirect(request.length);
+        direct.put(request).flip();
+        int split = REQUEST.indexOf("John");
+        List<ByteBuffer> chunks = Arrays.asList(ByteBuffer.wrap(request, 0, split), ByteBuffer.allocate(0), ByteBuffer.wrap(request, split, request.length - split));
+
+        for (JsonActionCodec codec : Arrays.asList(new JsonActionCodec(), JsonActionCodec.builder().lazyEvents(true).cacheDomain(true).build())) {
+            for (ActionRequest actionRequest : Arrays.asList(codec.decode(heap), codec.decode(direct), codec.decode(chunks))) {
+                assertEquals("sender", actionRequest.getSenderId());
+                assertEquals("John", actionRequest.getTracker().getSlots().get("name"));
+                assertEquals("action", actionRequest.getTracker().getEvents().get(0).getEvent());
+                assertEquals(Collections.singletonList("action_hello"), actionRequest.getDomain().getActions());
+            }
+        }
+        // positions of the buffers are not changed
+        assertEquals(5, heap.position());
+        assertEquals(0, direct.position());
+
+        ActionResponse actionResponse = new ActionResponse();
+        actionResponse.setEvents(Collections.singletonList(new SlotSet("name", "John")));
+        actionResponse.setResponses(Collections.emptyList());
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ActionCodec.json().encode(actionResponse, expected);
+        ByteBuffer small = ByteBuffer.allocateDirect(4);
+        ByteBuffer encoded = ActionCodec.json().encode(actionResponse, small);
+
+        assertNotSame(small, encoded);
+        assertTrue(encoded.isDirect());
+        encoded.flip();
+        byte[] bytes = new byte[encoded.remaining()];
+        encoded.get(bytes);
+        assertEquals(expected.toString(), new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void decodeSymbols() {
+        SymbolTable symbols = new SymbolTable();
+        symbols.addAll(Arrays.asList("greet", "John"));
+        JsonActionCodec codec = JsonActionCodec.builder().symbols(symbols).cacheDomain(true).build();
+
+        ActionRequest first = codec.decode(new ByteArrayInputStream(REQUEST.getBytes(StandardCharsets.UTF_8)));
+        ActionRequest second = codec.decode(new ByteArrayInputStream(REQUEST.getBytes(StandardCharsets.UTF_8)));
+
+        assertSame(symbols.intern(new String("greet")), first.getTracker().getLatestMessage().getIntent().getName());
+        assertSame(first.getTracker().getLatestMessage().getIntent().getName(), second.getTracker().getLatestMessage().getIntent().getName());
+        // values of slots, which are not typed as strings
+        assertSame(first.getTracker().getSlots().get("name"), second.getTracker().getSlots().get("name"));
+        // seeded by the domain of the first request
+        assertSame(first.getDomain().getActions().get(0), second.getNextAction());
+        // other strings are not interned
+        assertEquals("hi", second.getTracker().getLatestMessage().getText());
+        assertNotSame(first.getTracker().getLatestMessage().getText(), second.getTracker().getLatestMessage().getText());
+        assertEquals(null, symbols.lookup("hi".toCharArray(), 0, 2));
+    }
+
+    @Test
+    void seedSymbolsOnce() {
+        SymbolTable symbols = new SymbolTable();
+        int builtInSymbols = symbols.size();
+        symbols.addAll(Arrays.asList("greet", "John"));
+        symbols.addAll(Arrays.asList("greet", "John", new String("greet")));
+        assertEquals(builtInSymbols + 2, symbols.size());
+
+        JsonActionCodec codec = JsonActionCodec.builder().symbols(symbols).build();
+        ActionRequest first = codec.decode(new ByteArrayInputStream(REQUEST.getBytes(StandardCharsets.UTF_8)));
+        int seededSymbols = symbols.size();
+        for (int i = 0; i < 5; i++) {
+            codec.decode(new ByteArrayInputStream(REQUEST.replace("\"sender\"", "\"sender" + i + "\"").getBytes(StandardCharsets.UTF_8)));
+            symbols.addDomain(first.getDomain());
+        }
+        ActionRequest changed = codec.decode(new ByteArrayInputStream(REQUEST.replace("[\"action_hello\"]", "[\"action_bye\"]").getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(builtInSymbols + 3, seededSymbols);
+        assertEquals(seededSymbols + 1, symbols.size());
+        assertSame(symbols.intern(new String("action_bye")), changed.getDomain().getActions().get(0));
+    }
+
+    @Test
+    void limitSymbols() {
+        int maxSymbols = new SymbolTable().size() + 2;
+        SymbolTable symbols = new SymbolTable(maxSymbols);
+        symbols.addAll(Arrays.asList("greet", "goodbye", "affirm"));
+        symbols.addAll(Collections.singletonList("deny"));
+
+        assertEquals(maxSymbols, symbols.size());
+        assertSame(symbols.intern(new String("goodbye")), symbols.intern(new String("goodbye")));
+        // the symbols above the limit are skipped
+        assertNull(symbols.lookup("affirm".toCharArray(), 0, 6));
+        assertNull(symbols.lookup("deny".toCharArray(), 0, 4));
+        assertThrows(RasaException.class, () -> new SymbolTable(0));
+    }
+
+    @Test
+    void decodeNulls() {
+        ActionRequest actionRequest = ActionCodec.json().decode(new ByteArrayInputStream(
+                "{\"next_action\":null,\"tracker\":null,\"domain\":null}".getBytes(StandardCharsets.UTF_8)));
+
+        assertNull(actionRequest.getNextAction());
+        assertNull(actionRequest.getTracker());
+        assertNull(actionRequest.getDomain());
+    }
+
+    @Test
+    void decodeNonScalarProperties() {
+        for (String property : Arrays.asList("next_action", "sender_id", "version")) {
+            String request = "{\"" + property + "\":{\"a\":1},\"tracker\":{\"sender_id\":\"sender\"}}";
+            RasaException exception = assertThrows(RasaException.class,
+                    () -> ActionCodec.json().decode(new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8))));
+            assertTrue(exception.getMessage().contains(property));
+        }
+        // numbers are read as strings
+        ActionRequest actionRequest = ActionCodec.json().decode(new ByteArrayInputStream(
+                "{\"sender_id\":42,\"version\":\"1.4.0\"}".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("42", actionRequest.getSenderId());
+        assertEquals("1.4.0", actionRequest.getVersion());
+    }
+
+    @Test
+    void encode() throws Exception {
+        Map<String, Object> messages = new HashMap<>();
+        messages.put("text", "Hello");
+        ActionResponse actionResponse = new ActionResponse();
+        actionResponse.setEvents(Arrays.asList(new SlotSet("name", "John"), new Form(null)));
+        actionResponse.setResponses(Collections.singletonList(messages));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ActionCodec.json().encode(actionResponse, outputStream);
+
+        // the same JSON as written by the data binding
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(actionResponse)), objectMapper.readTree(outputStream.toByteArray()));
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.rbajek.rasa.sdk.concurrent;
+
+import io.github.rbajek.rasa.sdk.ActionExecutor;
+import io.github.rbajek.rasa.sdk.ActionOptions;
+import io.github.rbajek.rasa.sdk.CollectingDispatcher;
+import io.github.rbajek.rasa.sdk.dto.ActionRequest;
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+import io.github.rbajek.rasa.sdk.dto.Domain;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+import io.github.rbajek.rasa.sdk.exception.BulkheadFullException;
+import io.github.rbajek.rasa.sdk.repository.databuilder.action.NamedAction;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.rbajek.rasa.sdk.ActionRequests.actionRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadTest {
+
+    private static final String ACTION_NAME = "custom_action";
+
+    @Test
+    void runWithBulkhead() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch queued = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            // the first task blocks in the action, so the first task to complete is the one which has queued the second call
+            ActionExecutor executor = new ActionExecutor(task -> executorService.execute(() -> {
+                task.run();
+                queued.countDown();
+            }));
+            executor.registerAction(new NamedAction(ACTION_NAME) {
+                @Override
+                public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return super.run(dispatcher, tracker, domain);
+                }
+            }, ActionOptions.builder().maxConcurrentCalls(1).maxQueuedCalls(1).build());
+
+            ActionRequest actionRequest = actionRequest(ACTION_NAME);
+
+            CompletableFuture<ActionResponse> first = executor.runAsync(actionRequest);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<ActionResponse> second = executor.runAsync(actionRequest);
+            assertTrue(queued.await(5, TimeUnit.SECONDS));
+            ExecutionException rejection = assertThrows(ExecutionException.class, () -> executor.runAsync(actionRequest).get(5, TimeUnit.SECONDS));
+            assertTrue(rejection.getCause() instanceof BulkheadFullException);
+            assertEquals(1, executor.getInFlightCalls(ACTION_NAME));
+            assertEquals(1, executor.getQueuedCalls(ACTION_NAME));
+
+            release.countDown();
+            assertEquals(1, first.get(5, TimeUnit.SECONDS).getEvents().size());
+            assertEquals(1, second.get(5, TimeUnit.SECONDS).getEvents().size());
+            assertEquals(0, executor.getInFlightCalls(ACTION_NAME));
+            assertEquals(0, executor.getQueuedCalls(ACTION_NAME));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void runWithBulkheadFullFallback() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            ActionResponse busy = new ActionResponse();
+            busy.setEvents(Collections.emptyList());
+            busy.setResponses(Collections.singletonList(new HashMap<>(Collections.singletonMap("template", "utter_busy"))));
+            ActionExecutor executor = new ActionExecutor(executorService);
+            executor.registerActions(Arrays.asList(new NamedAction(ACTION_NAME) {
+                @Override
+                public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return super.run(dispatcher, tracker, domain);
+                }
+            }, new NamedAction("other_action")), ActionOptions.builder().maxConcurrentCalls(1).bulkheadFullFallback(busy).build());
+
+            ActionRequest actionRequest = actionRequest(ACTION_NAME);
+            CompletableFuture<ActionResponse> first = executor.runAsync(actionRequest);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // the call is rejected without a queue, so the fallback is returned instead of an exception
+            assertSame(busy, executor.run(actionRequest));
+            assertSame(busy, executor.runAsync(actionRequest).get(5, TimeUnit.SECONDS));
+            // every action has its own bulkhead
+            assertEquals(0, executor.getInFlightCalls("other_action"));
+
+            release.countDown();
+            assertEquals(1, first.get(5, TimeUnit.SECONDS).getEvents().size());
+            assertEquals(0, executor.getInFlightCalls(ACTION_NAME));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.rbajek.rasa.sdk.concurrent;
+
+import io.github.rbajek.rasa.sdk.ActionExecutor;
+import io.github.rbajek.rasa.sdk.ActionOptions;
+import io.github.rbajek.rasa.sdk.CollectingDispatcher;
+import io.github.rbajek.rasa.sdk.dto.ActionRequest;
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+import io.github.rbajek.rasa.sdk.dto.Domain;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+import io.github.rbajek.rasa.sdk.repository.databuilder.action.NamedAction;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.github.rbajek.rasa.sdk.ActionRequests.actionRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void outcomesCountForThePhaseWhichPermittedTheCall() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker circuitBreaker = new CircuitBreaker("action", CircuitBreakerConfig.builder()
+                .minimumCalls(2)
+                .openDuration(Duration.ofMillis(50))
+                .build(), clock::get);
+
+        CircuitBreaker.Permit slowCall = circuitBreaker.tryAcquire();
+        circuitBreaker.tryAcquire().onError(FAST);
+        circuitBreaker.tryAcquire().onError(FAST);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertNull(circuitBreaker.tryAcquire());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        CircuitBreaker.Permit probe = circuitBreaker.tryAcquire();
+        assertNotNull(probe);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        // a call permitted while the circuit was closed is not taken for the probe
+        slowCall.onSuccess(FAST);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertNull(circuitBreaker.tryAcquire());
+
+        // an outcome is reported once, so the probe cannot be released twice
+        probe.onIgnored();
+        probe.onIgnored();
+        CircuitBreaker.Permit nextProbe = circuitBreaker.tryAcquire();
+        assertNotNull(nextProbe);
+        assertNull(circuitBreaker.tryAcquire());
+
+        nextProbe.onSuccess(FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        // a late failure of the previous closed window does not count in the new one
+        slowCall.onError(FAST);
+        circuitBreaker.tryAcquire().onError(FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void disabledCircuitBreakerPermitsAllCalls() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.disabled("action");
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.tryAcquire().onError(FAST);
+        }
+        assertNotNull(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void runWithOpenCircuit() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ActionResponse fallback = new ActionResponse();
+        ActionExecutor executor = new ActionExecutor();
+        executor.registerAction(new BackendAction(calls, new AtomicBoolean(true)), ActionOptions.builder()
+                .circuitBreaker(CircuitBreakerConfig.builder()
+                        .minimumCalls(4)
+                        .openDuration(Duration.ofMinutes(1))
+                        .build())
+                .circuitOpenFallback(fallback)
+                .build());
+
+        ActionRequest actionRequest = actionRequest("action_backend");
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, () -> executor.run(actionRequest));
+        }
+        // the circuit is open, so the action is not called
+        assertSame(fallback, executor.run(actionRequest));
+        assertSame(fallback, executor.runAsync(actionRequest).get(5, TimeUnit.SECONDS));
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void runWithHalfOpenCircuit() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicBoolean backendDown = new AtomicBoolean(true);
+        ActionResponse fallback = new ActionResponse();
+        ActionExecutor executor = new ActionExecutor();
+        // without an open duration, the opened circuit lets the next call through as a probe
+        executor.registerAction(new BackendAction(calls, backendDown), ActionOptions.builder()
+                .circuitBreaker(CircuitBreakerConfig.builder()
+                        .minimumCalls(4)
+                        .openDuration(Duration.ZERO)
+                        .build())
+                .circuitOpenFallback(fallback)
+                .build());
+
+        ActionRequest actionRequest = actionRequest("action_backend");
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, () -> executor.run(actionRequest));
+        }
+        // the probe succeeds, which closes the circuit
+        backendDown.set(false);
+        assertNotSame(fallback, executor.run(actionRequest));
+        assertNotSame(fallback, executor.runAsync(actionRequest).get(5, TimeUnit.SECONDS));
+        assertEquals(6, calls.get());
+    }
+
+    private static class BackendAction extends NamedAction {
+        private final AtomicInteger calls;
+        private final AtomicBoolean backendDown;
+
+        private BackendAction(AtomicInteger calls, AtomicBoolean backendDown) {
+            super("action_backend");
+            this.calls = calls;
+            this.backendDown = backendDown;
+        }
+
+        @Override
+        public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+            calls.incrementAndGet();
+            if(backendDown.get()) {
+                throw new IllegalStateException("Backend is down");
+            }
+            return super.run(dispatcher, tracker, domain);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.rbajek.rasa.sdk.concurrent;
+
+import io.github.rbajek.rasa.sdk.ActionExecutor;
+import io.github.rbajek.rasa.sdk.CollectingDispatcher;
+import io.github.rbajek.rasa.sdk.dto.ActionRequest;
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+import io.github.rbajek.rasa.sdk.dto.Domain;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+import io.github.rbajek.rasa.sdk.repository.databuilder.action.NamedAction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.rbajek.rasa.sdk.ActionRequests.actionRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PartitionedExecutorTest {
+
+    @Test
+    void runAsyncPartitionedBySender() throws Exception {
+        try (PartitionedExecutor partitionedExecutor = new PartitionedExecutor(4)) {
+            List<String> visits = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch firstStarted = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            ActionExecutor executor = new ActionExecutor(partitionedExecutor);
+            executor.registerAction(new NamedAction("action_sender") {
+                @Override
+                public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+                    visits.add("start");
+                    if(firstStarted.getCount() > 0) {
+                        firstStarted.countDown();
+                        await(release);
+                    }
+                    visits.add("end");
+                    return super.run(dispatcher, tracker, domain);
+                }
+            });
+
+            ActionRequest first = actionRequest("action_sender");
+            first.setSenderId("sender");
+            ActionRequest second = actionRequest("action_sender");
+            second.setSenderId("sender");
+
+            CompletableFuture<ActionResponse> firstResponse = executor.runAsync(first);
+            assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+            CompletableFuture<ActionResponse> secondResponse = executor.runAsync(second);
+            // requests of the same sender are run on the same lane, so the second one waits for the first one
+            assertFalse(secondResponse.isDone());
+            release.countDown();
+
+            assertEquals(firstResponse.get(5, TimeUnit.SECONDS).getEvents(), secondResponse.get(5, TimeUnit.SECONDS).getEvents());
+            assertEquals(Arrays.asList("start", "end", "start", "end"), visits);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
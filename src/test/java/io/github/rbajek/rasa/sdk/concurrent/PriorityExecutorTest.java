@@ -0,0 +1,110 @@
+package io.github.rbajek.rasa.sdk.concurrent;
+
+import io.github.rbajek.rasa.sdk.ActionExecutor;
+import io.github.rbajek.rasa.sdk.ActionOptions;
+import io.github.rbajek.rasa.sdk.CollectingDispatcher;
+import io.github.rbajek.rasa.sdk.action.ActionPriority;
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+import io.github.rbajek.rasa.sdk.dto.Domain;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+import io.github.rbajek.rasa.sdk.repository.databuilder.action.NamedAction;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.github.rbajek.rasa.sdk.ActionRequests.actionRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriorityExecutorTest {
+
+    @Test
+    void runAsyncByPriority() throws Exception {
+        AtomicLong nanoTime = new AtomicLong();
+        try (PriorityExecutor priorityExecutor = PriorityExecutor.start(1, Duration.ofMillis(200), "priority-", nanoTime::get)) {
+            List<String> visits = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch blocked = new CountDownLatch(1);
+            ActionExecutor executor = new ActionExecutor(priorityExecutor);
+            executor.registerAction(new NamedAction("action_blocking") {
+                @Override
+                public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+                    await(blocked);
+                    return super.run(dispatcher, tracker, domain);
+                }
+            });
+            executor.registerAction(new NamedAction("action_low") {
+                @Override
+                public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+                    visits.add(name());
+                    return super.run(dispatcher, tracker, domain);
+                }
+
+                @Override
+                public ActionPriority priority() {
+                    return ActionPriority.LOW;
+                }
+            });
+            executor.registerAction(new NamedAction("action_high") {
+                @Override
+                public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+                    visits.add(name());
+                    return super.run(dispatcher, tracker, domain);
+                }
+            }, ActionOptions.builder().priority(ActionPriority.HIGH).build());
+
+            // the only worker is busy, so both requests wait and the high priority one is run first
+            CompletableFuture<ActionResponse> blocking = executor.runAsync(actionRequest("action_blocking"));
+            CompletableFuture<ActionResponse> low = executor.runAsync(actionRequest("action_low"));
+            CompletableFuture<ActionResponse> high = executor.runAsync(actionRequest("action_high"));
+            blocked.countDown();
+            CompletableFuture.allOf(blocking, low, high).get(5, TimeUnit.SECONDS);
+            assertEquals(Arrays.asList("action_high", "action_low"), visits);
+
+            // a low priority request waiting longer than the maximum wait is not starved
+            visits.clear();
+            CountDownLatch blockedAgain = new CountDownLatch(1);
+            CountDownLatch workerBusy = new CountDownLatch(1);
+            priorityExecutor.execute(ActionPriority.HIGH, () -> {
+                workerBusy.countDown();
+                await(blockedAgain);
+            });
+            await(workerBusy);
+            low = executor.runAsync(actionRequest("action_low"));
+            nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(300));
+            high = executor.runAsync(actionRequest("action_high"));
+            assertEquals(1, priorityExecutor.getQueuedTasks(ActionPriority.LOW));
+            blockedAgain.countDown();
+            CompletableFuture.allOf(low, high).get(5, TimeUnit.SECONDS);
+            assertEquals(Arrays.asList("action_low", "action_high"), visits);
+        }
+    }
+
+    @Test
+    void keepWorkerAfterFailure() throws Exception {
+        try (PriorityExecutor priorityExecutor = PriorityExecutor.start(1, Duration.ofSeconds(1))) {
+            CountDownLatch completed = new CountDownLatch(1);
+            priorityExecutor.execute(() -> {
+                throw new AssertionError("A failing task");
+            });
+            priorityExecutor.execute(completed::countDown);
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.rbajek.rasa.sdk.concurrent;
+
+import io.github.rbajek.rasa.sdk.ActionExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against the packaged multi-release JAR, so the Java 21 layer is used on JDK 21+
+ */
+class ThreadPerTaskExecutorsIT {
+
+    @Test
+    void runTasksOnVirtualThreads() throws Exception {
+        assertTrue(ThreadPerTaskExecutors.isVirtualThreadSupported());
+
+        ExecutorService executor = ThreadPerTaskExecutors.newThreadPerTaskExecutor("action-");
+        try {
+            Thread first = CompletableFuture.supplyAsync(Thread::currentThread, executor).get(5, TimeUnit.SECONDS);
+            Thread second = CompletableFuture.supplyAsync(Thread::currentThread, executor).get(5, TimeUnit.SECONDS);
+
+            assertTrue(isVirtual(first));
+            assertTrue(first.getName().startsWith("action-"));
+            assertNotSame(first, second);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void threadPerTaskActionExecutor() throws Exception {
+        ActionExecutor actionExecutor = ActionExecutor.threadPerTask();
+        Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, actionExecutor.getExecutor()).get(5, TimeUnit.SECONDS);
+
+        assertTrue(isVirtual(thread));
+    }
+
+    /**
+     * Tests are compiled for Java 8, so {@code Thread.isVirtual()} is called reflectively
+     */
+    private static boolean isVirtual(Thread thread) throws ReflectiveOperationException {
+        return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.rbajek.rasa.sdk.concurrent.limit;
+
+import io.github.rbajek.rasa.sdk.ActionExecutor;
+import io.github.rbajek.rasa.sdk.ActionOptions;
+import io.github.rbajek.rasa.sdk.CollectingDispatcher;
+import io.github.rbajek.rasa.sdk.dto.ActionRequest;
+import io.github.rbajek.rasa.sdk.dto.ActionResponse;
+import io.github.rbajek.rasa.sdk.dto.Domain;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+import io.github.rbajek.rasa.sdk.exception.ConcurrencyLimitExceededException;
+import io.github.rbajek.rasa.sdk.repository.databuilder.action.NamedAction;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.rbajek.rasa.sdk.ActionRequests.actionRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final String ACTION_NAME = "custom_action";
+
+    @Test
+    void runWithConcurrencyLimiter() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            ActionExecutor executor = new ActionExecutor(executorService);
+            executor.setConcurrencyLimiter(new AdaptiveConcurrencyLimiter(AimdLimit.builder().initialLimit(1).minLimit(1).maxLimit(1).build()));
+            executor.registerAction(new NamedAction(ACTION_NAME) {
+                @Override
+                public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return super.run(dispatcher, tracker, domain);
+                }
+            });
+
+            ActionRequest actionRequest = actionRequest(ACTION_NAME);
+
+            CompletableFuture<ActionResponse> first = executor.runAsync(actionRequest);
+            // the request over the limit is shed immediately
+            CompletableFuture<ActionResponse> second = executor.runAsync(actionRequest);
+            assertTrue(second.isCompletedExceptionally());
+            assertThrows(ConcurrencyLimitExceededException.class, () -> executor.run(actionRequest));
+
+            release.countDown();
+            assertEquals(1, first.get(5, TimeUnit.SECONDS).getEvents().size());
+            assertEquals(1, executor.run(actionRequest).getEvents().size());
+            assertEquals(0, executor.getConcurrencyLimiter().getInFlight());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void runWithConcurrencyLimiterAndTimeoutFallback() throws Exception {
+        CountDownLatch never = new CountDownLatch(1);
+        ActionExecutor executor = new ActionExecutor();
+        executor.setConcurrencyLimiter(new AdaptiveConcurrencyLimiter(AimdLimit.builder().initialLimit(8).minLimit(1).maxLimit(8).build()));
+        executor.registerAction(new NamedAction(ACTION_NAME) {
+            @Override
+            public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+                // the action is interrupted by its deadline
+                try {
+                    never.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.run(dispatcher, tracker, domain);
+            }
+        }, ActionOptions.builder().timeout(Duration.ofMillis(20)).build());
+        ActionResponse fallback = new ActionResponse();
+        fallback.setEvents(Collections.emptyList());
+        executor.setTimeoutFallback(fallback);
+
+        ActionRequest actionRequest = actionRequest(ACTION_NAME);
+
+        // timed-out requests are dropped, even though the fallback is returned
+        assertSame(fallback, executor.run(actionRequest));
+        int limit = executor.getConcurrencyLimiter().getLimit();
+        assertTrue(limit < 8);
+        assertSame(fallback, executor.runAsync(actionRequest).get(5, TimeUnit.SECONDS));
+        assertTrue(executor.getConcurrencyLimiter().getLimit() < limit);
+        assertEquals(0, executor.getConcurrencyLimiter().getInFlight());
+    }
+}
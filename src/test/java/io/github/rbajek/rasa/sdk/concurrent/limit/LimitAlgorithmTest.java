@@ -0,0 +1,56 @@
+package io.github.rbajek.rasa.sdk.concurrent.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimitAlgorithmTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void aimdIncreasesAdditivelyAndDecreasesMultiplicatively() {
+        AimdLimit limit = AimdLimit.builder()
+                .initialLimit(10)
+                .backoffRatio(0.5)
+                .timeout(Duration.ofMillis(50))
+                .build();
+
+        limit.onSample(FAST, 10, false);
+        assertEquals(11, limit.getLimit());
+
+        // the limit is not used, so it should not grow
+        limit.onSample(FAST, 1, false);
+        assertEquals(11, limit.getLimit());
+
+        limit.onSample(SLOW, 11, false);
+        assertEquals(5, limit.getLimit());
+
+        limit.onSample(FAST, 5, true);
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    void gradientShrinksWhenLatencyGrows() {
+        GradientLimit limit = GradientLimit.builder()
+                .initialLimit(50)
+                .smoothing(1.0)
+                .build();
+
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(FAST, limit.getLimit(), false);
+        }
+        int stableLimit = limit.getLimit();
+        assertTrue(stableLimit > 50);
+
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(SLOW, limit.getLimit(), false);
+        }
+        assertTrue(limit.getLimit() < stableLimit);
+    }
+}
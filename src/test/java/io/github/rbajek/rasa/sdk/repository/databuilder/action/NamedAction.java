@@ -0,0 +1,32 @@
+package io.github.rbajek.rasa.sdk.repository.databuilder.action;
+
+import io.github.rbajek.rasa.sdk.CollectingDispatcher;
+import io.github.rbajek.rasa.sdk.action.Action;
+import io.github.rbajek.rasa.sdk.dto.Domain;
+import io.github.rbajek.rasa.sdk.dto.Tracker;
+import io.github.rbajek.rasa.sdk.dto.event.AbstractEvent;
+import io.github.rbajek.rasa.sdk.dto.event.SlotSet;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Action with the given name, which sets the "test" slot
+ */
+public class NamedAction implements Action {
+    private final String name;
+
+    public NamedAction(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public List<AbstractEvent> run(CollectingDispatcher dispatcher, Tracker tracker, Domain domain) {
+        return Collections.singletonList(new SlotSet("test", "test"));
+    }
+}